@@ -0,0 +1,117 @@
+package com.example.animal_adoption_platform.config;
+
+import com.example.animal_adoption_platform.model.Adoption;
+import com.example.animal_adoption_platform.model.Animal;
+import com.example.animal_adoption_platform.model.ChatSession;
+import com.example.animal_adoption_platform.model.ClinicTile;
+import com.example.animal_adoption_platform.model.CommentBucket;
+import com.example.animal_adoption_platform.model.GeocodeCacheEntry;
+import com.example.animal_adoption_platform.model.Post;
+import com.example.animal_adoption_platform.model.SlotReservation;
+import com.example.animal_adoption_platform.model.StatsRollup;
+import com.example.animal_adoption_platform.model.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.Duration;
+
+/**
+ * Creează la pornire indexurile folosite de interogările de căutare și catalog.
+ */
+@Configuration
+public class MongoIndexConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexConfig(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Indexurile unice și TTL de care depinde corectitudinea datelor (rezervări, adopții permanente,
+     * bucket-uri de comentarii, expirarea cache-urilor) opresc pornirea dacă nu pot fi create.
+     * Celelalte sunt doar pentru performanță: o eroare este raportată, iar restul sunt create în continuare.
+     */
+    @PostConstruct
+    public void ensureIndexes() {
+        IndexOperations animals = mongoTemplate.indexOps(Animal.class);
+        optional(animals, new Index().on("species", Sort.Direction.ASC)
+                .on("typesOfAdoptions", Sort.Direction.ASC).named("species_typesOfAdoptions"));
+        optional(animals, new Index().on("typesOfAdoptions", Sort.Direction.ASC).named("typesOfAdoptions"));
+        optional(animals, new Index().on("userId", Sort.Direction.ASC).named("userId"));
+        optional(animals, new GeospatialIndex("location").typed(GeoSpatialIndexType.GEO_2DSPHERE).named("location_2dsphere"));
+
+        IndexOperations posts = mongoTemplate.indexOps(Post.class);
+        optional(posts, new Index().on("createdAt", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC).named("createdAt_id"));
+        optional(posts, new Index().on("tag", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC).named("tag_createdAt_id"));
+
+        required(mongoTemplate.indexOps(CommentBucket.class), new Index().on("postId", Sort.Direction.ASC)
+                .on("bucket", Sort.Direction.ASC).unique().named("postId_bucket"));
+
+        IndexOperations adoptions = mongoTemplate.indexOps(Adoption.class);
+        optional(adoptions, new Index().on("dueAt", Sort.Direction.ASC).sparse().named("dueAt"));
+        for (String field : new String[]{"userId", "adopterId", "animalId"}) {
+            optional(adoptions, new Index().on(field, Sort.Direction.ASC).on("status", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.DESC).named(field + "_status_id"));
+            optional(adoptions, new Index().on(field, Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.DESC).named(field + "_id"));
+        }
+        optional(adoptions, new Index().on("status", Sort.Direction.ASC).on("_id", Sort.Direction.DESC).named("status_id"));
+        // doar adopțiile permanente în curs au permanentClaim ca text
+        required(adoptions, new Index().on("permanentClaim", Sort.Direction.ASC).unique()
+                .partial(PartialIndexFilter.of(Criteria.where("permanentClaim").type(2))).named("permanentClaim"));
+
+        IndexOperations slotReservations = mongoTemplate.indexOps(SlotReservation.class);
+        required(slotReservations, new Index().on("animalId", Sort.Direction.ASC)
+                .on("slotStart", Sort.Direction.ASC).unique().named("animalId_slotStart"));
+        required(slotReservations, new Index().on("holdExpiresAt", Sort.Direction.ASC)
+                .expire(0).named("holdExpiresAt_ttl"));
+
+        optional(mongoTemplate.indexOps(StatsRollup.class), new Index().on("userId", Sort.Direction.ASC)
+                .on("species", Sort.Direction.ASC).on("period", Sort.Direction.ASC).named("userId_species_period"));
+
+        required(mongoTemplate.indexOps(GeocodeCacheEntry.class), new Index().on("createdAt", Sort.Direction.ASC)
+                .expire(Duration.ofDays(30)).named("createdAt_ttl"));
+
+        required(mongoTemplate.indexOps(ClinicTile.class), new Index().on("createdAt", Sort.Direction.ASC)
+                .expire(Duration.ofDays(7)).named("createdAt_ttl"));
+
+        required(mongoTemplate.indexOps(ChatSession.class), new Index().on("updatedAt", Sort.Direction.ASC)
+                .expire(Duration.ofDays(7)).named("updatedAt_ttl"));
+
+        optional(mongoTemplate.indexOps(User.class),
+                new GeospatialIndex("location").typed(GeoSpatialIndexType.GEO_2DSPHERE).named("location_2dsphere"));
+    }
+
+    private void optional(IndexOperations indexOps, IndexDefinition index) {
+        try {
+            indexOps.ensureIndex(index);
+        } catch (Exception e) {
+            logger.warn("Could not ensure MongoDB index {}: {}", index.getIndexOptions().get("name"), e.getMessage());
+        }
+    }
+
+    private void required(IndexOperations indexOps, IndexDefinition index) {
+        try {
+            indexOps.ensureIndex(index);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not ensure required MongoDB index "
+                    + index.getIndexOptions().get("name") + ": " + e.getMessage(), e);
+        }
+    }
+}
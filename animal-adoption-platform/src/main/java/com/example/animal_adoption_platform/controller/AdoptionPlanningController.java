@@ -1,32 +1,103 @@
 package com.example.animal_adoption_platform.controller;
 
 import com.example.animal_adoption_platform.dto.AdoptionDTO;
+import com.example.animal_adoption_platform.dto.AdoptionDashboardDTO;
+import com.example.animal_adoption_platform.dto.AdoptionPageDTO;
+import com.example.animal_adoption_platform.model.SlotReservation;
 import com.example.animal_adoption_platform.repository.AdoptionRepository;
 import com.example.animal_adoption_platform.repository.UserRepository;
 import com.example.animal_adoption_platform.service.AdoptionService;
+import com.example.animal_adoption_platform.service.SlotBookingService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Controller
 @CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
 public class AdoptionPlanningController {
     AdoptionService adoptionService;
+    SlotBookingService slotBookingService;
 
-    public AdoptionPlanningController(AdoptionService adoptionService) {
+    public AdoptionPlanningController(AdoptionService adoptionService, SlotBookingService slotBookingService) {
         this.adoptionService = adoptionService;
+        this.slotBookingService = slotBookingService;
     }
 
     @PostMapping("/scheduleAdoption")
     public ResponseEntity<String> scheduleAdoption(@RequestBody AdoptionDTO adoptionDTO){
-        adoptionService.scheduleAnAdoption(adoptionDTO);
-        return ResponseEntity.ok("Success");
+        try {
+            adoptionService.scheduleAnAdoption(adoptionDTO);
+            return ResponseEntity.ok("Success");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/adoptions")
+    public ResponseEntity<AdoptionPageDTO> getAdoptions(@RequestParam(required = false) String userId,
+                                                        @RequestParam(required = false) String adopterId,
+                                                        @RequestParam(required = false) String animalId,
+                                                        @RequestParam(required = false) String status,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "20") int limit){
+        try {
+            return ResponseEntity.ok(adoptionService.findAdoptions(userId, adopterId, animalId, status, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/adoptions/dashboard")
+    public ResponseEntity<AdoptionDashboardDTO> getDashboard(@RequestParam(required = false) String userId,
+                                                             @RequestParam(required = false) String adopterId){
+        return ResponseEntity.ok(adoptionService.getDashboard(userId, adopterId));
+    }
+
+    @GetMapping("/adoptionSlots/{animalId}")
+    public ResponseEntity<List<LocalDateTime>> getAvailableSlots(@PathVariable String animalId,
+                                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date){
+        return ResponseEntity.ok(slotBookingService.availableSlots(animalId, date));
+    }
+
+    @PostMapping("/adoptionSlots/{animalId}/hold")
+    public ResponseEntity<?> holdSlot(@PathVariable String animalId, @RequestParam String adopterId,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime slotStart){
+        try {
+            SlotReservation reservation = slotBookingService.hold(animalId, adopterId, slotStart);
+            return ResponseEntity.ok(reservation);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/adoptionSlots/reservations/{reservationId}")
+    public ResponseEntity<String> releaseSlot(@PathVariable String reservationId, @RequestParam String adopterId){
+        slotBookingService.release(reservationId, adopterId);
+        return ResponseEntity.ok("Reservation released successfully");
     }
 
     @PatchMapping("/modifyStatus/{id}")
-    public ResponseEntity<String> modifyStatus(@PathVariable String id, @RequestBody String status){
-        adoptionService.changeStatus(id, status);
-        return ResponseEntity.ok("Status changed successfully");
+    public ResponseEntity<String> modifyStatus(@PathVariable String id, @RequestBody String status,
+                                               @RequestParam(required = false) Long version){
+        try {
+            adoptionService.changeStatus(id, status, version);
+            return ResponseEntity.ok("Status changed successfully");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
     }
 
     @DeleteMapping("/finishAdoption")
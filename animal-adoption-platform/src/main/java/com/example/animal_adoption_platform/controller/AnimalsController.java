@@ -1,10 +1,14 @@
 package com.example.animal_adoption_platform.controller;
 
 import com.example.animal_adoption_platform.dto.AnimalDTO;
+import com.example.animal_adoption_platform.dto.AnimalSummaryDTO;
+import com.example.animal_adoption_platform.dto.NearbyAnimalDTO;
 import com.example.animal_adoption_platform.model.Animal;
 import com.example.animal_adoption_platform.repository.AnimalRepository;
 import com.example.animal_adoption_platform.service.AnimalService;
 import com.example.animal_adoption_platform.service.UserService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
@@ -37,33 +41,27 @@ public class AnimalsController {
     @PatchMapping("/updateAnimal/{id}")
     public ResponseEntity<String> updateAnimal(
             @PathVariable String id,
-            @RequestBody Map<String, String> updates) {
-
-        if (updates.size() != 1) {
-            return ResponseEntity.badRequest().body("Please provide exactly one field to update");
-        }
-
-        Map.Entry<String, String> entry = updates.entrySet().iterator().next();
-        String field = entry.getKey();
-        String value = entry.getValue();
-
+            @RequestBody Map<String, Object> updates,
+            @RequestParam(required = false) Long version) {
         try {
-            animalService.updateAnimal(id, field, value);
+            animalService.updateAnimal(id, updates, version);
             return ResponseEntity.ok("Updated successfully");
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         }
     }
 
     @GetMapping("/animalCatalog")
-    public ResponseEntity<List<Animal>> getAnimals(String userId){
-        List<Animal> animals = animalService.getAnimalsByUserId(userId);
+    public ResponseEntity<List<AnimalSummaryDTO>> getAnimals(String userId){
+        List<AnimalSummaryDTO> animals = animalService.getAnimalsByUserId(userId);
         return ResponseEntity.ok(animals);
     }
 
     @GetMapping("/allAnimals")
-    public ResponseEntity<List<Animal>> getAllAnimals() {
-        List<Animal> animals = animalService.getAnimals();
+    public ResponseEntity<List<AnimalSummaryDTO>> getAllAnimals() {
+        List<AnimalSummaryDTO> animals = animalService.getAnimals();
         return ResponseEntity.ok(animals);
     }
 
@@ -73,6 +71,16 @@ public class AnimalsController {
         return ResponseEntity.ok(animal);
     }
 
+    @GetMapping("/nearbyAnimals")
+    public ResponseEntity<List<NearbyAnimalDTO>> getNearbyAnimals(@RequestParam double latitude,
+                                                                  @RequestParam double longitude,
+                                                                  @RequestParam(defaultValue = "10") double radius,
+                                                                  @RequestParam(defaultValue = "0") int page,
+                                                                  @RequestParam(defaultValue = "20") int size) {
+        List<NearbyAnimalDTO> animals = animalService.findAnimalsNear(latitude, longitude, radius, page, size);
+        return ResponseEntity.ok(animals);
+    }
+
  
 
 
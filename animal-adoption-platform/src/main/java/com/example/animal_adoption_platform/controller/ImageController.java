@@ -0,0 +1,64 @@
+package com.example.animal_adoption_platform.controller;
+
+import com.example.animal_adoption_platform.service.ImageStorageService;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class ImageController {
+
+    private final ImageStorageService imageStorageService;
+
+    public ImageController(ImageStorageService imageStorageService) {
+        this.imageStorageService = imageStorageService;
+    }
+
+    @GetMapping("/images/{imageId}")
+    public ResponseEntity<Resource> getImage(@PathVariable String imageId,
+                                             @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) throws IOException {
+        return serve(imageId, false, ifNoneMatch);
+    }
+
+    @GetMapping("/images/{imageId}/thumbnail")
+    public ResponseEntity<Resource> getThumbnail(@PathVariable String imageId,
+                                                 @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) throws IOException {
+        return serve(imageId, true, ifNoneMatch);
+    }
+
+    // id-ul este hash-ul conținutului, deci imaginea de la o adresă nu se schimbă niciodată
+    private ResponseEntity<Resource> serve(String imageId, boolean thumbnail, String ifNoneMatch) throws IOException {
+        String etag = "\"" + imageId + (thumbnail ? "-thumb" : "") + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl)
+                    .header("X-Content-Type-Options", "nosniff").build();
+        }
+
+        Optional<GridFsResource> image = imageStorageService.open(imageId, thumbnail);
+        if (image.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        GridFsResource resource = image.get();
+        // fișierele salvate înainte de verificarea formatului pot avea orice tip declarat
+        String contentType = resource.getContentType();
+        MediaType mediaType = ImageStorageService.isAllowedType(contentType)
+                ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_OCTET_STREAM;
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .header("X-Content-Type-Options", "nosniff")
+                .contentType(mediaType)
+                .contentLength(resource.contentLength())
+                .body(resource);
+    }
+}
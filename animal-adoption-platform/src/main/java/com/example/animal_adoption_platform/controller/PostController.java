@@ -1,21 +1,29 @@
 package com.example.animal_adoption_platform.controller;
 
 
+import com.example.animal_adoption_platform.dto.CommentDTO;
+import com.example.animal_adoption_platform.dto.CommentPageDTO;
 import com.example.animal_adoption_platform.dto.PostDTO;
-import com.example.animal_adoption_platform.model.Post;
+import com.example.animal_adoption_platform.model.Comment;
+import com.example.animal_adoption_platform.service.CommentService;
+import com.example.animal_adoption_platform.service.PostCounterService;
+import com.example.animal_adoption_platform.dto.PostFeedPageDTO;
 import com.example.animal_adoption_platform.service.PostService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
 public class PostController {
     private final PostService postService;
+    private final CommentService commentService;
+    private final PostCounterService postCounterService;
 
-    public PostController(PostService postService) {
+    public PostController(PostService postService, CommentService commentService,
+                          PostCounterService postCounterService) {
         this.postService = postService;
+        this.commentService = commentService;
+        this.postCounterService = postCounterService;
     }
 
     @PostMapping("/createPost")
@@ -37,12 +45,46 @@ public class PostController {
     }
 
     @GetMapping("/getPosts")
-    public ResponseEntity<List<Post>> getAllPosts(){
-        List<Post> posts = postService.getAllPosts();
-        return ResponseEntity.ok(posts);
+    public ResponseEntity<PostFeedPageDTO> getPosts(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) String tag,
+                                                    @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(postService.getFeed(cursor, tag, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 
+    @PostMapping("/posts/{postId}/comments")
+    public ResponseEntity<Comment> addComment(@PathVariable String postId, @RequestBody CommentDTO commentDTO) {
+        try {
+            return ResponseEntity.ok(commentService.addComment(postId, commentDTO));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
+    @GetMapping("/posts/{postId}/comments")
+    public ResponseEntity<CommentPageDTO> getComments(@PathVariable String postId,
+                                                      @RequestParam(required = false) Integer bucket) {
+        return ResponseEntity.ok(commentService.getComments(postId, bucket));
+    }
 
+    @PostMapping("/posts/{postId}/like")
+    public ResponseEntity<String> likePost(@PathVariable String postId) {
+        postCounterService.like(postId);
+        return ResponseEntity.ok("Post liked");
+    }
 
+    @DeleteMapping("/posts/{postId}/like")
+    public ResponseEntity<String> unlikePost(@PathVariable String postId) {
+        postCounterService.unlike(postId);
+        return ResponseEntity.ok("Post unliked");
+    }
+
+    @PostMapping("/posts/{postId}/share")
+    public ResponseEntity<String> sharePost(@PathVariable String postId) {
+        postCounterService.share(postId);
+        return ResponseEntity.ok("Post shared");
+    }
 }
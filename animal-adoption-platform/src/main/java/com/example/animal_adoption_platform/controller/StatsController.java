@@ -0,0 +1,40 @@
+package com.example.animal_adoption_platform.controller;
+
+import com.example.animal_adoption_platform.model.StatsRollup;
+import com.example.animal_adoption_platform.service.StatsRollupService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+@RequestMapping("/stats")
+public class StatsController {
+
+    private final StatsRollupService statsRollupService;
+
+    public StatsController(StatsRollupService statsRollupService) {
+        this.statsRollupService = statsRollupService;
+    }
+
+    @GetMapping("/monthly")
+    public ResponseEntity<List<StatsRollup>> getMonthly(@RequestParam(required = false) String userId,
+                                                        @RequestParam(required = false) String species,
+                                                        @RequestParam(required = false) String from,
+                                                        @RequestParam(required = false) String to) {
+        return ResponseEntity.ok(statsRollupService.findMonthly(userId, species, from, to));
+    }
+
+    @GetMapping("/totals")
+    public ResponseEntity<StatsRollup> getTotals() {
+        StatsRollup totals = statsRollupService.totals();
+        return totals != null ? ResponseEntity.ok(totals) : ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<String> rebuild() {
+        statsRollupService.rebuild();
+        return ResponseEntity.ok("Stats rebuilt successfully");
+    }
+}
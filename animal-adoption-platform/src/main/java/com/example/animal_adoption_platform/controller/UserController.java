@@ -80,11 +80,15 @@ public class UserController {
         String id = userService.getCurrentUserId(authentication);
 
         try {
+            Map<String, Object> changes = new HashMap<>();
             if (updates.containsKey("contact")) {
-                userService.updateUser(id, "contact", updates.get("contact"));
+                changes.put("contact", updates.get("contact"));
             }
             if (updates.containsKey("type")) {
-                userService.updateUser(id, "type", updates.get("type"));
+                changes.put("type", updates.get("type"));
+            }
+            if (!changes.isEmpty()) {
+                userService.updateUser(id, changes);
             }
 
             return ResponseEntity.ok("User updated successfully");
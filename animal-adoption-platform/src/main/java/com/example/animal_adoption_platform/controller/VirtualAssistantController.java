@@ -1,21 +1,108 @@
 package com.example.animal_adoption_platform.controller;
 
+import com.example.animal_adoption_platform.service.AssistantAnswerCache;
+import com.example.animal_adoption_platform.service.ChatBackendRouter;
 import com.example.animal_adoption_platform.service.VirtualAssistantService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 @RestController
 @CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
 public class VirtualAssistantController {
+    private static final long STREAM_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(2);
+
     private VirtualAssistantService virtualAssistant;
+    private AssistantAnswerCache answerCache;
+    private ChatBackendRouter chatBackendRouter;
 
-    public VirtualAssistantController(VirtualAssistantService virtualAssistant) {
+    public VirtualAssistantController(VirtualAssistantService virtualAssistant, AssistantAnswerCache answerCache,
+                                      ChatBackendRouter chatBackendRouter) {
         this.virtualAssistant = virtualAssistant;
+        this.answerCache = answerCache;
+        this.chatBackendRouter = chatBackendRouter;
     }
 
     @PostMapping("/chat")
-    public ResponseEntity<String> chat(@RequestBody String prompt) {
-        String response = virtualAssistant.generateText(prompt);
+    public ResponseEntity<String> chat(@RequestBody String prompt, @RequestParam(required = false) String sessionId) {
+        String response = virtualAssistant.generateText(sessionId, prompt);
         return ResponseEntity.ok(response);
     }
+
+    @DeleteMapping("/chat/sessions/{sessionId}")
+    public ResponseEntity<String> endSession(@PathVariable String sessionId) {
+        virtualAssistant.endSession(sessionId);
+        return ResponseEntity.ok("Session deleted successfully");
+    }
+
+    @GetMapping("/chat/backends")
+    public ResponseEntity<Map<String, Object>> backendStats() {
+        return ResponseEntity.ok(chatBackendRouter.stats());
+    }
+
+    @GetMapping("/chat/cache")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(answerCache.stats());
+    }
+
+    @DeleteMapping("/chat/cache")
+    public ResponseEntity<String> invalidateCache(@RequestParam(required = false) String containing) {
+        int removed = answerCache.invalidate(containing);
+        return ResponseEntity.ok("Removed " + removed + " cached answers successfully");
+    }
+
+    /**
+     * Același răspuns ca {@code /chat}, trimis ca server-sent events: câte un eveniment {@code token}
+     * pentru fiecare fragment, apoi {@code done}. Dacă clientul se deconectează, cererea către model
+     * este anulată.
+     */
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter chatStream(@RequestBody String prompt, @RequestParam(required = false) String sessionId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        AtomicReference<Disposable> subscription = new AtomicReference<>();
+        Runnable cancel = () -> {
+            Disposable disposable = subscription.get();
+            if (disposable != null) disposable.dispose();
+        };
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(cancel);
+        emitter.onError(error -> cancel.run());
+
+        subscription.set(virtualAssistant.streamText(sessionId, prompt).subscribe(
+                token -> {
+                    try {
+                        emitter.send(SseEmitter.event().name("token").data(token, MediaType.TEXT_PLAIN));
+                    } catch (IOException | IllegalStateException e) {
+                        // clientul a închis conexiunea
+                        cancel.run();
+                        emitter.completeWithError(e);
+                    }
+                },
+                error -> {
+                    try {
+                        emitter.send(SseEmitter.event().name("error")
+                                .data(Map.of("message", "Sorry, I couldn't process your request at the moment."),
+                                        MediaType.APPLICATION_JSON));
+                        emitter.complete();
+                    } catch (IOException | IllegalStateException e) {
+                        emitter.completeWithError(e);
+                    }
+                },
+                () -> {
+                    try {
+                        emitter.send(SseEmitter.event().name("done").data(""));
+                        emitter.complete();
+                    } catch (IOException | IllegalStateException e) {
+                        emitter.completeWithError(e);
+                    }
+                }));
+        return emitter;
+    }
 }
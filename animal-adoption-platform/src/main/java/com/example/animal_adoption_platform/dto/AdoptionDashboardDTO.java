@@ -0,0 +1,15 @@
+package com.example.animal_adoption_platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class AdoptionDashboardDTO {
+    private Map<String, Long> countsByStatus;
+    private long total;
+}
@@ -0,0 +1,20 @@
+package com.example.animal_adoption_platform.dto;
+
+import com.example.animal_adoption_platform.model.Adoption;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * O pagină de adopții. {@code nextCursor} se trimite înapoi pentru pagina următoare și este
+ * null când nu mai există rezultate.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class AdoptionPageDTO {
+    private List<Adoption> adoptions;
+    private String nextCursor;
+}
@@ -0,0 +1,24 @@
+package com.example.animal_adoption_platform.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Forma unui animal în listele din catalog: fără embeddings și fără conținutul imaginilor,
+ * doar cu adresele de la care imaginile pot fi descărcate.
+ */
+@Getter
+@Setter
+public class AnimalSummaryDTO {
+    private String id;
+    private String name;
+    private String species;
+    private String description;
+    private List<String> typesOfAdoptions;
+    private String userId;
+    private String thumbnailUrl;
+    private List<String> images;
+    private OwnerSummaryDTO owner;
+}
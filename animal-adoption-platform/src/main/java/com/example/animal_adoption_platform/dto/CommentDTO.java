@@ -0,0 +1,13 @@
+package com.example.animal_adoption_platform.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+public class CommentDTO {
+
+    private String userId;
+    private String content;
+
+}
@@ -0,0 +1,22 @@
+package com.example.animal_adoption_platform.dto;
+
+import com.example.animal_adoption_platform.model.Comment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Comentariile dintr-un bucket, în ordinea adăugării. {@code previousBucket} indică bucket-ul
+ * cu comentariile mai vechi și este null pentru primul bucket.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class CommentPageDTO {
+    private List<Comment> comments;
+    private int bucket;
+    private Integer previousBucket;
+    private int totalComments;
+}
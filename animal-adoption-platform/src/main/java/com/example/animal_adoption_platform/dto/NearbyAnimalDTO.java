@@ -0,0 +1,23 @@
+package com.example.animal_adoption_platform.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class NearbyAnimalDTO {
+    private String id;
+    private String name;
+    private String species;
+    private List<String> typesOfAdoptions;
+    private String thumbnailUrl;
+    private String userId;
+    private String ownerName;
+    private String ownerType;
+    private String ownerContact;
+    private double latitude;
+    private double longitude;
+    private double distanceKm;
+}
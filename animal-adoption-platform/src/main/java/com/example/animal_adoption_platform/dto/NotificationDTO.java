@@ -0,0 +1,22 @@
+package com.example.animal_adoption_platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Un eveniment trimis clienților prin fluxul SSE. {@code id} crește monoton și este folosit
+ * ca Last-Event-ID la reconectare.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class NotificationDTO {
+    private long id;
+    private String type;
+    private Map<String, Object> data;
+    private LocalDateTime createdAt;
+}
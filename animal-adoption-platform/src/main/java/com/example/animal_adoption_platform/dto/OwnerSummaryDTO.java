@@ -0,0 +1,15 @@
+package com.example.animal_adoption_platform.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class OwnerSummaryDTO {
+    private String id;
+    private String name;
+    private String type;
+    private String contact;
+    private Double latitude;
+    private Double longitude;
+}
@@ -0,0 +1,20 @@
+package com.example.animal_adoption_platform.dto;
+
+import com.example.animal_adoption_platform.model.Post;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * O pagină din feed-ul comunității. {@code nextCursor} se trimite înapoi pentru pagina
+ * următoare și este null când nu mai există postări.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class PostFeedPageDTO {
+    private List<Post> posts;
+    private String nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.example.animal_adoption_platform.event;
+
+import com.example.animal_adoption_platform.model.Adoption;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Publicat după ce o adopție a fost ștearsă.
+ */
+@Getter
+@AllArgsConstructor
+public class AdoptionDeletedEvent {
+    private final Adoption adoption;
+    // specia animalului, citită înainte ca acesta să fie eventual șters; null dacă nu se cunoaște
+    private final String species;
+}
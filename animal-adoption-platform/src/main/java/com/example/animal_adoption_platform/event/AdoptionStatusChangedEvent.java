@@ -0,0 +1,15 @@
+package com.example.animal_adoption_platform.event;
+
+import com.example.animal_adoption_platform.model.Adoption;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Publicat după ce statusul unei adopții a fost modificat.
+ */
+@Getter
+@AllArgsConstructor
+public class AdoptionStatusChangedEvent {
+    private final Adoption adoption;
+    private final String previousStatus;
+}
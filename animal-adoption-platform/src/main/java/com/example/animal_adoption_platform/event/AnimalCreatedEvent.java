@@ -0,0 +1,14 @@
+package com.example.animal_adoption_platform.event;
+
+import com.example.animal_adoption_platform.model.Animal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Publicat o singură dată, când un animal nou este adăugat în catalog.
+ */
+@Getter
+@AllArgsConstructor
+public class AnimalCreatedEvent {
+    private final Animal animal;
+}
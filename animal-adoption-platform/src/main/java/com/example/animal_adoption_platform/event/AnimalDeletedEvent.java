@@ -0,0 +1,16 @@
+package com.example.animal_adoption_platform.event;
+
+import com.example.animal_adoption_platform.model.Animal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Publicat după ce un animal a fost șters din catalog.
+ */
+@Getter
+@AllArgsConstructor
+public class AnimalDeletedEvent {
+    private final String animalId;
+    // documentul șters, dacă mai exista; null altfel
+    private final Animal animal;
+}
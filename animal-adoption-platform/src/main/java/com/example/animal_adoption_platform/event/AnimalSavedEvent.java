@@ -0,0 +1,14 @@
+package com.example.animal_adoption_platform.event;
+
+import com.example.animal_adoption_platform.model.Animal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Publicat după ce un animal a fost creat sau modificat, pentru a ține indexurile în memorie la zi.
+ */
+@Getter
+@AllArgsConstructor
+public class AnimalSavedEvent {
+    private final Animal animal;
+}
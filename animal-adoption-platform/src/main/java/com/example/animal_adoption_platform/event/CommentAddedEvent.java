@@ -0,0 +1,15 @@
+package com.example.animal_adoption_platform.event;
+
+import com.example.animal_adoption_platform.model.Comment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Publicat după ce un comentariu a fost adăugat la o postare.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentAddedEvent {
+    private final String postId;
+    private final Comment comment;
+}
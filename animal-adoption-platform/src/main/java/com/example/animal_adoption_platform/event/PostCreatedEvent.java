@@ -0,0 +1,14 @@
+package com.example.animal_adoption_platform.event;
+
+import com.example.animal_adoption_platform.model.Post;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Publicat după salvarea unei postări noi în comunitate.
+ */
+@Getter
+@AllArgsConstructor
+public class PostCreatedEvent {
+    private final Post post;
+}
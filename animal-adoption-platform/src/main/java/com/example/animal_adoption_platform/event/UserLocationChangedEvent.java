@@ -0,0 +1,15 @@
+package com.example.animal_adoption_platform.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+/**
+ * Publicat după ce locația unui utilizator a fost schimbată; animalele lui își schimbă și ele locația.
+ */
+@Getter
+@AllArgsConstructor
+public class UserLocationChangedEvent {
+    private final String userId;
+    private final GeoJsonPoint location;
+}
@@ -30,4 +30,15 @@ public class Adoption {
     private String type;
     private LocalDateTime adoptionDate;
     private int period;
+    // incrementată la fiecare actualizare parțială; folosită pentru verificări optimiste
+    private long version;
+    // sfârșitul perioadei pentru adopțiile temporare; scos după expirare, deci indexul conține doar adopțiile în curs
+    private LocalDateTime dueAt;
+    // instanța care procesează expirarea și până când își păstrează dreptul
+    private String leaseOwner;
+    private LocalDateTime leaseUntil;
+    // intervalul de vizită rezervat pentru programare
+    private String slotReservationId;
+    // animalId cât timp o adopție permanentă este în curs; indexul unic parțial împiedică două astfel de adopții
+    private String permanentClaim;
 }
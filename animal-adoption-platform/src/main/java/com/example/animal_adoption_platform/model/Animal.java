@@ -6,6 +6,10 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.geo.Point;
 
@@ -27,7 +31,14 @@ public class Animal {
     private String description;
     private List<String> images;
     private List<String> typesOfAdoptions;
+    // păstrate în colecția animalEmbeddings; completate doar acolo unde căutarea are nevoie de ele
+    @Transient
     private List<Float> embeddings;
+    // copia locației proprietarului, ținută sincronizată de AnimalService
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint location;
+    // incrementată la fiecare actualizare parțială; folosită pentru verificări optimiste
+    private long version;
 
 
 }
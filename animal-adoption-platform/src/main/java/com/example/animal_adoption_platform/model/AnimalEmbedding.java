@@ -0,0 +1,25 @@
+package com.example.animal_adoption_platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.bson.types.Binary;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Embedding-ul text al unui animal, păstrat separat de documentul animalului.
+ * Vectorul este stocat ca float32 little-endian împachetat într-un BinData.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "animalEmbeddings")
+public class AnimalEmbedding {
+    @Id
+    private String animalId;
+    private int dimensions;
+    private Binary vector;
+}
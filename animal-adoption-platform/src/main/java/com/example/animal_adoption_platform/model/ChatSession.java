@@ -0,0 +1,30 @@
+package com.example.animal_adoption_platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversația unui utilizator cu asistentul virtual: ultimele replici, în limita bugetului de
+ * tokeni, plus un rezumat scurt al replicilor mai vechi.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "chatSessions")
+public class ChatSession {
+    @Id
+    private String id;
+
+    private String summary;
+    private List<ChatTurn> turns = new ArrayList<>();
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,17 @@
+package com.example.animal_adoption_platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClinicPlace {
+    private String placeId;
+    private String displayName;
+    private double latitude;
+    private double longitude;
+}
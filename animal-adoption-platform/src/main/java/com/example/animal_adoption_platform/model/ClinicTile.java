@@ -0,0 +1,32 @@
+package com.example.animal_adoption_platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Clinicile găsite de Nominatim într-o dală de hartă (z/x/y) pentru un cuvânt cheie. Cheia este
+ * {@code z/x/y|cuvânt normalizat}; intrările expiră prin indexul TTL pe {@code createdAt}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "clinicTiles")
+public class ClinicTile {
+    @Id
+    private String key;
+
+    private int zoom;
+    private int x;
+    private int y;
+    private String keyword;
+    private List<ClinicPlace> clinics;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,28 @@
+package com.example.animal_adoption_platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+/**
+ * Un grup de cel mult {@code CommentService.BUCKET_SIZE} comentarii consecutive ale unei postări.
+ * Comentariul cu numărul n (de la 1) al postării ajunge în bucket-ul (n - 1) / BUCKET_SIZE.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "commentBuckets")
+public class CommentBucket {
+    @Id
+    private String id;
+    private String postId;
+    private int bucket;
+    private int count;
+    private List<Comment> comments;
+}
@@ -0,0 +1,31 @@
+package com.example.animal_adoption_platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rezultatul unei interogări Nominatim, păstrat pentru a nu repeta cererea. Cheia este adresa
+ * normalizată ({@code fwd:...}) sau coordonatele rotunjite la ~100 m ({@code rev:lat,lon}).
+ * Și rezultatele negative sunt păstrate ({@code found = false}).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "geocodeCache")
+public class GeocodeCacheEntry {
+    @Id
+    private String key;
+
+    private boolean found;
+    private Double latitude;
+    private Double longitude;
+    private String displayName;
+    private LocalDateTime createdAt;
+}
@@ -8,7 +8,6 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Getter
 @Setter
@@ -23,7 +22,8 @@ public class Post {
     private String content;
     private String imageUrl;
     private int likes;
-    private List<Comment> comments;
+    // comentariile sunt în colecția commentBuckets; aici rămâne doar numărul lor
+    private int commentCount;
     private int shares;
     private String tag;
 
@@ -0,0 +1,38 @@
+package com.example.animal_adoption_platform.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.bson.types.Binary;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * O căutare salvată de un utilizator, păstrată deja analizată: specia și zona extrase din text,
+ * tipurile de adopție și embedding-ul interogării (float32 împachetat, ca în animalEmbeddings).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "savedSearches")
+public class SavedSearch {
+    @Id
+    private String id;
+    private String userId;
+    private String query;
+    private String species;
+    private List<String> adoptionTypes;
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
+    @JsonIgnore
+    private Binary queryEmbedding;
+    private float threshold;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,34 @@
+package com.example.animal_adoption_platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rezervarea unui interval de vizită pentru un animal. Indexul unic pe (animalId, slotStart)
+ * garantează cel mult o rezervare pe interval. O rezervare {@code held} expiră la
+ * {@code holdExpiresAt} dacă nu este confirmată.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "slotReservations")
+public class SlotReservation {
+    public static final String HELD = "held";
+    public static final String CONFIRMED = "confirmed";
+
+    @Id
+    private String id;
+    private String animalId;
+    private String adopterId;
+    private LocalDateTime slotStart;
+    private String status;
+    private LocalDateTime holdExpiresAt;
+    private LocalDateTime createdAt;
+}
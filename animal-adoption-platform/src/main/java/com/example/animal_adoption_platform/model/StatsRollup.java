@@ -0,0 +1,39 @@
+package com.example.animal_adoption_platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contoare agregate pe (perioadă, adăpost, specie), actualizate cu $inc la fiecare eveniment.
+ * Perioada este luna ({@code yyyy-MM}) sau {@code all}; adăpostul și specia pot fi {@code *}
+ * pentru totalul peste toate valorile.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "statsRollups")
+public class StatsRollup {
+    @Id
+    private String id;
+
+    private String period;
+    private String userId;
+    private String species;
+    private long animalsAdded;
+    private long animalsRemoved;
+    // ținut doar pe bucket-ul total (all, *, *)
+    private long animalsWithEmbeddings;
+    // numărul de adopții care au ajuns în fiecare status în perioada respectivă
+    private Map<String, Long> adoptionsByStatus = new HashMap<>();
+    // setat pe bucket-ul total după reconstruirea completă din colecțiile sursă
+    private LocalDateTime backfilledAt;
+}
@@ -22,7 +22,7 @@ public class User {
     private String email;
     private String password;
     private String type;
-//    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
     private GeoJsonPoint location;
     private String contact;
 
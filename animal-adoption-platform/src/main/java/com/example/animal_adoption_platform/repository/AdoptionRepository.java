@@ -5,7 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.Optional;
 
-public interface AdoptionRepository extends MongoRepository<Adoption, String> {
+public interface AdoptionRepository extends MongoRepository<Adoption, String>, AdoptionRepositoryCustom {
     Optional<Adoption> findById(String id);
     Adoption findAdoptionByUserId(String s);
 }
@@ -0,0 +1,12 @@
+package com.example.animal_adoption_platform.repository;
+
+import com.example.animal_adoption_platform.model.Adoption;
+
+import java.util.List;
+import java.util.Map;
+
+public interface AdoptionRepositoryCustom {
+    List<Adoption> findPage(String userId, String adopterId, String animalId, String status, String afterId, int limit);
+
+    Map<String, Long> countByStatus(String userId, String adopterId);
+}
@@ -0,0 +1,86 @@
+package com.example.animal_adoption_platform.repository;
+
+import com.example.animal_adoption_platform.model.Adoption;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AdoptionRepositoryImpl implements AdoptionRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public AdoptionRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * O pagină de adopții, cele mai noi întâi. Paginarea este pe _id (crescător în timp): pagina
+     * următoare începe după {@code afterId}, deci costul nu crește cu numărul paginii. Filtrele sunt
+     * egalități acoperite de indexurile (câmp, status, _id).
+     */
+    @Override
+    public List<Adoption> findPage(String userId, String adopterId, String animalId, String status,
+                                   String afterId, int limit) {
+        List<Criteria> criteria = equalityFilters(userId, adopterId);
+        if (animalId != null && !animalId.isBlank()) {
+            criteria.add(Criteria.where("animalId").is(animalId));
+        }
+        if (status != null && !status.isBlank()) {
+            criteria.add(Criteria.where("status").is(status));
+        }
+        if (afterId != null && !afterId.isBlank()) {
+            if (!ObjectId.isValid(afterId)) {
+                throw new IllegalArgumentException("Invalid adoption cursor");
+            }
+            criteria.add(Criteria.where("id").lt(new ObjectId(afterId)));
+        }
+
+        Query query = criteria.isEmpty()
+                ? new Query()
+                : new Query(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        query.with(Sort.by(Sort.Direction.DESC, "id")).limit(limit);
+        query.fields().exclude("leaseOwner", "leaseUntil", "permanentClaim");
+        return mongoTemplate.find(query, Adoption.class);
+    }
+
+    /**
+     * Numărul de adopții pe status, calculat de MongoDB: $match pe prefixul indexului, apoi $group
+     * pe status, fără a transfera documentele.
+     */
+    @Override
+    public Map<String, Long> countByStatus(String userId, String adopterId) {
+        List<Criteria> criteria = equalityFilters(userId, adopterId);
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria.isEmpty() ? new Criteria()
+                        : new Criteria().andOperator(criteria.toArray(new Criteria[0]))),
+                Aggregation.group("status").count().as("count"),
+                Aggregation.sort(Sort.Direction.ASC, "_id"));
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, Adoption.class, Document.class)) {
+            Object status = row.get("_id");
+            counts.put(status == null ? "unknown" : status.toString(), ((Number) row.get("count")).longValue());
+        }
+        return counts;
+    }
+
+    private static List<Criteria> equalityFilters(String userId, String adopterId) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (userId != null && !userId.isBlank()) {
+            criteria.add(Criteria.where("userId").is(userId));
+        }
+        if (adopterId != null && !adopterId.isBlank()) {
+            criteria.add(Criteria.where("adopterId").is(adopterId));
+        }
+        return criteria;
+    }
+}
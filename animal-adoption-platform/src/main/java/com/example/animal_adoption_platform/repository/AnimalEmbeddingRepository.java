@@ -0,0 +1,7 @@
+package com.example.animal_adoption_platform.repository;
+
+import com.example.animal_adoption_platform.model.AnimalEmbedding;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface AnimalEmbeddingRepository extends MongoRepository<AnimalEmbedding, String> {
+}
@@ -8,7 +8,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
 
-public interface AnimalRepository extends MongoRepository<Animal, String> {
+public interface AnimalRepository extends MongoRepository<Animal, String>, AnimalRepositoryCustom {
     Animal findAnimalById(String id);
     Animal findAnimalByName(String name);
     List<Animal> findByUserId(String userId);
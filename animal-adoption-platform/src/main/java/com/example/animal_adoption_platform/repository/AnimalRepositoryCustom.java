@@ -0,0 +1,15 @@
+package com.example.animal_adoption_platform.repository;
+
+import com.example.animal_adoption_platform.model.Animal;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AnimalRepositoryCustom {
+    default List<Animal> findSearchCandidates(String species, Collection<String> adoptionTypes, Collection<String> ownerIds) {
+        return findSearchCandidates(species, adoptionTypes, ownerIds, null);
+    }
+
+    List<Animal> findSearchCandidates(String species, Collection<String> adoptionTypes,
+                                      Collection<String> ownerIds, Collection<String> animalIds);
+}
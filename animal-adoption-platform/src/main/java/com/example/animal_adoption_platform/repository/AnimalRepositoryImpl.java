@@ -0,0 +1,84 @@
+package com.example.animal_adoption_platform.repository;
+
+import com.example.animal_adoption_platform.model.Animal;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class AnimalRepositoryImpl implements AnimalRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public AnimalRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Încarcă într-o singură interogare indexată animalele care pot fi candidați la căutare.
+     * Valorile cerute sunt rezolvate întâi la valorile exacte din colecție (distinct pe index),
+     * astfel încât filtrul să rămână tolerant la diacritice și majuscule dar să folosească $in.
+     * Imaginile nu sunt transferate.
+     */
+    @Override
+    public List<Animal> findSearchCandidates(String species, Collection<String> adoptionTypes,
+                                             Collection<String> ownerIds, Collection<String> animalIds) {
+        List<Criteria> criteria = new ArrayList<>();
+
+        if (species != null && !species.isBlank()) {
+            List<String> speciesValues = resolveStoredValues("species", List.of(species), false);
+            if (speciesValues.isEmpty()) return new ArrayList<>();
+            criteria.add(Criteria.where("species").in(speciesValues));
+        }
+        if (adoptionTypes != null && !adoptionTypes.isEmpty()) {
+            List<String> typeValues = resolveStoredValues("typesOfAdoptions", adoptionTypes, true);
+            if (typeValues.isEmpty()) return new ArrayList<>();
+            criteria.add(Criteria.where("typesOfAdoptions").in(typeValues));
+        }
+        if (ownerIds != null) {
+            if (ownerIds.isEmpty()) return new ArrayList<>();
+            criteria.add(Criteria.where("userId").in(ownerIds));
+        }
+        if (animalIds != null) {
+            if (animalIds.isEmpty()) return new ArrayList<>();
+            criteria.add(Criteria.where("id").in(animalIds));
+        }
+
+        Query query = criteria.isEmpty()
+                ? new Query()
+                : new Query(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        query.fields().exclude("images");
+        return mongoTemplate.find(query, Animal.class);
+    }
+
+    private List<String> resolveStoredValues(String field, Collection<String> requested, boolean partialMatch) {
+        List<String> stored = mongoTemplate.findDistinct(new Query(), field, Animal.class, String.class);
+        List<String> matching = new ArrayList<>();
+        for (String value : stored) {
+            String normalizedValue = normalizeText(value);
+            for (String requestedValue : requested) {
+                String normalizedRequested = normalizeText(requestedValue);
+                boolean match = normalizedValue.equals(normalizedRequested) ||
+                        (partialMatch && (normalizedValue.contains(normalizedRequested) ||
+                                normalizedRequested.contains(normalizedValue)));
+                if (match) {
+                    matching.add(value);
+                    break;
+                }
+            }
+        }
+        return matching;
+    }
+
+    private String normalizeText(String text) {
+        if (text == null) return "";
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
+                .toLowerCase()
+                .trim();
+    }
+}
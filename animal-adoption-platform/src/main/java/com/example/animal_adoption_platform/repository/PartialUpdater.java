@@ -0,0 +1,146 @@
+package com.example.animal_adoption_platform.repository;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Actualizări parțiale: câmpurile modificate sunt trimise cu un singur $set, fără a încărca și
+ * rescrie documentul. Fiecare apelant dă lista câmpurilor permise, împreună cu conversia valorii
+ * primite (de obicei din JSON) în tipul salvat.
+ */
+@Component
+public class PartialUpdater {
+
+    public static final String VERSION_FIELD = "version";
+
+    public static final Function<Object, Object> TEXT = value -> value == null ? null : value.toString();
+
+    public static final Function<Object, Object> INTEGER = value -> {
+        if (value instanceof Number number) return number.intValue();
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+    };
+
+    /**
+     * Acceptă o listă JSON sau un text cu elemente separate prin virgulă (așa trimite editorul de
+     * catalog); elementele sunt curățate de spații, iar cele goale sunt ignorate.
+     */
+    public static final Function<Object, Object> TEXT_LIST = value -> {
+        if (value == null) return null;
+        List<?> items = value instanceof List<?> list ? list : List.of(value.toString().split(","));
+        return items.stream()
+                .filter(Objects::nonNull)
+                .map(item -> item.toString().trim())
+                .filter(item -> !item.isEmpty())
+                .toList();
+    };
+
+    /**
+     * Acceptă un GeoJsonPoint sau forma JSON {"latitude": .., "longitude": ..} / {"coordinates": [lon, lat]}.
+     */
+    public static final Function<Object, Object> GEO_POINT = value -> {
+        if (value instanceof GeoJsonPoint) return value;
+        if (value instanceof Map<?, ?> map) {
+            if (map.get("latitude") instanceof Number lat && map.get("longitude") instanceof Number lon) {
+                return new GeoJsonPoint(lon.doubleValue(), lat.doubleValue());
+            }
+            if (map.get("coordinates") instanceof List<?> coordinates && coordinates.size() == 2
+                    && coordinates.get(0) instanceof Number lon && coordinates.get(1) instanceof Number lat) {
+                return new GeoJsonPoint(lon.doubleValue(), lat.doubleValue());
+            }
+        }
+        throw new IllegalArgumentException("Invalid location format");
+    };
+
+    private final MongoTemplate mongoTemplate;
+
+    public PartialUpdater(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Aplică modificările într-un singur updateFirst. Întoarce false dacă documentul nu există.
+     */
+    public boolean patch(Class<?> type, String id, Map<String, ?> changes,
+                         Map<String, Function<Object, Object>> allowedFields) {
+        Update update = toUpdate(changes, allowedFields);
+        return mongoTemplate.updateFirst(byId(id), update, type).getMatchedCount() > 0;
+    }
+
+    /**
+     * Aplică modificările și întoarce documentul, în forma de dinainte sau de după actualizare,
+     * într-un singur findAndModify. Cu {@code expectedVersion} dat, actualizarea reușește doar dacă
+     * documentul nu a fost modificat între timp și incrementează versiunea.
+     *
+     * @throws OptimisticLockingFailureException dacă documentul există dar are altă versiune
+     */
+    public <T> T patchAndGet(Class<T> type, String id, Map<String, ?> changes,
+                             Map<String, Function<Object, Object>> allowedFields,
+                             Long expectedVersion, boolean returnNew, String... excludedFields) {
+        Update update = toUpdate(changes, allowedFields);
+        Query query = byId(id);
+        if (expectedVersion != null) {
+            query.addCriteria(versionMatches(expectedVersion));
+        }
+        update.inc(VERSION_FIELD, 1);
+        if (excludedFields.length > 0) {
+            query.fields().exclude(excludedFields);
+        }
+
+        T result = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(returnNew), type);
+        if (result == null && expectedVersion != null && mongoTemplate.exists(byId(id), type)) {
+            throw new OptimisticLockingFailureException(
+                    type.getSimpleName() + " " + id + " was modified concurrently (expected version " + expectedVersion + ")");
+        }
+        return result;
+    }
+
+    private Update toUpdate(Map<String, ?> changes, Map<String, Function<Object, Object>> allowedFields) {
+        if (changes == null || changes.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+        Update update = new Update();
+        for (Map.Entry<String, ?> change : changes.entrySet()) {
+            Function<Object, Object> converter = allowedFields.get(change.getKey());
+            if (converter == null) {
+                throw new IllegalArgumentException("Invalid field: " + change.getKey());
+            }
+            Object value = converter.apply(change.getValue());
+            // null scoate câmpul, ca documentul să iasă din indexurile sparse/parțiale pe el
+            if (value == null) {
+                update.unset(change.getKey());
+            } else {
+                update.set(change.getKey(), value);
+            }
+        }
+        return update;
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where("id").is(id));
+    }
+
+    // documentele create înainte de versionare nu au câmpul; sunt tratate ca versiunea 0
+    private static Criteria versionMatches(long expectedVersion) {
+        if (expectedVersion == 0) {
+            return new Criteria().orOperator(Criteria.where(VERSION_FIELD).is(0L),
+                    Criteria.where(VERSION_FIELD).exists(false));
+        }
+        return Criteria.where(VERSION_FIELD).is(expectedVersion);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.animal_adoption_platform.repository;
+
+import com.example.animal_adoption_platform.model.SavedSearch;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface SavedSearchRepository extends MongoRepository<SavedSearch, String> {
+    List<SavedSearch> findByUserId(String userId);
+}
@@ -0,0 +1,166 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import com.example.animal_adoption_platform.model.Animal;
+import com.example.animal_adoption_platform.model.AnimalEmbedding;
+import com.example.animal_adoption_platform.repository.AnimalEmbeddingRepository;
+import com.example.animal_adoption_platform.service.StatsRollupService;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Acces la colecția {@code animalEmbeddings}: embedding-urile text ale animalelor, împachetate
+ * binar (4 octeți pe componentă) în loc de un array BSON de double-uri.
+ */
+@Component
+public class AnimalEmbeddingStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnimalEmbeddingStore.class);
+
+    @Autowired
+    private AnimalEmbeddingRepository animalEmbeddingRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private StatsRollupService statsRollupService;
+
+    /**
+     * Salvează embedding-ul printr-un upsert; contorul de animale cu embedding crește doar când
+     * documentul este nou.
+     */
+    public void save(String animalId, List<Float> embedding) {
+        if (embedding == null || embedding.isEmpty()) {
+            delete(animalId);
+            return;
+        }
+        Update update = new Update().set("dimensions", embedding.size()).set("vector", new Binary(pack(embedding)));
+        if (mongoTemplate.upsert(new Query(Criteria.where("animalId").is(animalId)), update, AnimalEmbedding.class)
+                .getUpsertedId() != null) {
+            statsRollupService.embeddingAdded();
+        }
+    }
+
+    public long count() {
+        return animalEmbeddingRepository.count();
+    }
+
+    public List<Float> find(String animalId) {
+        return animalEmbeddingRepository.findById(animalId).map(AnimalEmbedding::getVector)
+                .map(vector -> toList(unpack(vector.getData()))).orElse(null);
+    }
+
+    public Map<String, List<Float>> findAll(Collection<String> animalIds) {
+        Map<String, List<Float>> embeddings = new HashMap<>();
+        for (AnimalEmbedding embedding : animalEmbeddingRepository.findAllById(animalIds)) {
+            embeddings.put(embedding.getAnimalId(), toList(unpack(embedding.getVector().getData())));
+        }
+        return embeddings;
+    }
+
+    public void delete(String animalId) {
+        if (mongoTemplate.remove(new Query(Criteria.where("animalId").is(animalId)), AnimalEmbedding.class)
+                .getDeletedCount() > 0) {
+            statsRollupService.embeddingRemoved();
+        }
+    }
+
+    /**
+     * Completează embedding-urile pe animalele încărcate din colecția {@code animals}.
+     */
+    public <T extends Collection<Animal>> T attach(T animals) {
+        Map<String, List<Float>> embeddings = findAll(animals.stream().map(Animal::getId).toList());
+        for (Animal animal : animals) {
+            animal.setEmbeddings(embeddings.get(animal.getId()));
+        }
+        return animals;
+    }
+
+    public Animal attach(Animal animal) {
+        if (animal != null) {
+            animal.setEmbeddings(find(animal.getId()));
+        }
+        return animal;
+    }
+
+    /**
+     * Parcurge toate embedding-urile cu un cursor, fără a le ține pe toate în memorie ca entități.
+     */
+    public void forEach(BiConsumer<String, float[]> consumer) {
+        try (Stream<AnimalEmbedding> embeddings = mongoTemplate.stream(new Query(), AnimalEmbedding.class)) {
+            embeddings.forEach(embedding ->
+                    consumer.accept(embedding.getAnimalId(), unpack(embedding.getVector().getData())));
+        }
+    }
+
+    /**
+     * Mută embedding-urile încă salvate ca array în documentele animalelor. Rulează înaintea
+     * celorlalte inițializări de la pornire, ca indexul de căutare să găsească vectorii mutați.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateInlineEmbeddings() {
+        try {
+            String animals = mongoTemplate.getCollectionName(Animal.class);
+            Query query = new Query(Criteria.where("embeddings").exists(true));
+            query.fields().include("embeddings");
+            int migrated = 0;
+            try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, animals)) {
+                Iterator<Document> iterator = documents.iterator();
+                while (iterator.hasNext()) {
+                    Document document = iterator.next();
+                    List<Number> values = document.getList("embeddings", Number.class);
+                    if (values != null && !values.isEmpty()) {
+                        List<Float> embedding = new ArrayList<>(values.size());
+                        for (Number value : values) embedding.add(value.floatValue());
+                        save(String.valueOf(document.get("_id")), embedding);
+                    }
+                    mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(document.get("_id"))),
+                            new Update().unset("embeddings"), animals);
+                    migrated++;
+                }
+            }
+            if (migrated > 0) {
+                logger.info("Moved embeddings of {} animals to animalEmbeddings", migrated);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not migrate inline embeddings: {}", e.getMessage());
+        }
+    }
+
+    public static byte[] pack(List<Float> embedding) {
+        ByteBuffer buffer = ByteBuffer.allocate(embedding.size() * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (Float value : embedding) {
+            buffer.putFloat(value != null ? value : 0f);
+        }
+        return buffer.array();
+    }
+
+    public static float[] unpack(byte[] data) {
+        float[] vector = new float[data.length / Float.BYTES];
+        ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    private static List<Float> toList(float[] vector) {
+        List<Float> list = new ArrayList<>(vector.length);
+        for (float value : vector) list.add(value);
+        return list;
+    }
+}
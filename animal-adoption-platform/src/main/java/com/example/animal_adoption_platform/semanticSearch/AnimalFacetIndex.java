@@ -0,0 +1,256 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import com.example.animal_adoption_platform.event.AnimalDeletedEvent;
+import com.example.animal_adoption_platform.event.AnimalSavedEvent;
+import com.example.animal_adoption_platform.event.UserLocationChangedEvent;
+import com.example.animal_adoption_platform.model.Animal;
+import com.example.animal_adoption_platform.model.User;
+import com.example.animal_adoption_platform.repository.UserRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de fațete (specie, tip de adopție, oraș) ținut în memorie ca un bitmap comprimat
+ * pentru fiecare valoare, peste ordinalele dense ale animalelor.
+ */
+@Component
+public class AnimalFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnimalFacetIndex.class);
+
+    public static final String SPECIES = "species";
+    public static final String ADOPTION_TYPE = "adoptionType";
+    public static final String CITY = "city";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AnimalOrdinals animalOrdinals;
+    @Autowired
+    private CityLocator cityLocator;
+
+    private final Map<String, Map<String, RoaringBitmap>> facets = new HashMap<>();
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            Query animalQuery = new Query();
+            animalQuery.fields().include("userId", "species", "typesOfAdoptions");
+            List<Animal> animals = mongoTemplate.find(animalQuery, Animal.class);
+
+            Query userQuery = new Query(Criteria.where("location").exists(true));
+            userQuery.fields().include("location");
+            Map<String, GeoJsonPoint> ownerLocations = new HashMap<>();
+            for (User user : mongoTemplate.find(userQuery, User.class)) {
+                ownerLocations.put(user.getId(), user.getLocation());
+            }
+
+            lock.writeLock().lock();
+            try {
+                facets.clear();
+                live.clear();
+                for (Animal animal : animals) {
+                    indexLocked(animal, ownerLocations.get(animal.getUserId()));
+                }
+                facets.values().forEach(values -> values.values().forEach(RoaringBitmap::runOptimize));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Facet index built for {} animals", animals.size());
+        } catch (Exception e) {
+            logger.warn("Could not build facet index at startup: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onAnimalSaved(AnimalSavedEvent event) {
+        Animal animal = event.getAnimal();
+        GeoJsonPoint ownerLocation = null;
+        if (animal.getUserId() != null) {
+            ownerLocation = userRepository.findById(animal.getUserId()).map(User::getLocation).orElse(null);
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(animalOrdinals.ordinalOf(animal.getId()));
+            indexLocked(animal, ownerLocation);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onAnimalDeleted(AnimalDeletedEvent event) {
+        Integer ordinal = animalOrdinals.find(event.getAnimalId());
+        if (ordinal == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onUserLocationChanged(UserLocationChangedEvent event) {
+        Query ownedQuery = new Query(Criteria.where("userId").is(event.getUserId()));
+        ownedQuery.fields().include("userId", "species", "typesOfAdoptions");
+        List<Animal> owned = mongoTemplate.find(ownedQuery, Animal.class);
+        lock.writeLock().lock();
+        try {
+            for (Animal animal : owned) {
+                removeLocked(animalOrdinals.ordinalOf(animal.getId()));
+                indexLocked(animal, event.getLocation());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Animalele care satisfac toate fațetele cerute: AND între fațete, OR între tipurile de adopție.
+     * Un parametru null sau gol nu restrânge rezultatul.
+     */
+    public RoaringBitmap filter(String species, Collection<String> adoptionTypes, String city) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = live.clone();
+            if (species != null && !species.isBlank()) {
+                result.and(valueBitmap(SPECIES, normalize(species)));
+            }
+            if (adoptionTypes != null && !adoptionTypes.isEmpty()) {
+                result.and(adoptionTypeBitmap(adoptionTypes));
+            }
+            if (city != null && !city.isBlank()) {
+                result.and(valueBitmap(CITY, cityLocator.keyOf(city)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public RoaringBitmap toBitmap(Collection<String> animalIds) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (String animalId : animalIds) {
+            Integer ordinal = animalOrdinals.find(animalId);
+            if (ordinal != null) {
+                bitmap.add(ordinal);
+            }
+        }
+        return bitmap;
+    }
+
+    public Map<String, Map<String, Integer>> counts() {
+        return counts(null);
+    }
+
+    /**
+     * Numărul de animale pentru fiecare valoare a fiecărei fațete, restrâns la setul de candidați
+     * (sau la tot catalogul dacă setul este null).
+     */
+    public Map<String, Map<String, Integer>> counts(RoaringBitmap candidates) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap scope = candidates != null ? RoaringBitmap.and(candidates, live) : live;
+            Map<String, Map<String, Integer>> result = new LinkedHashMap<>();
+            for (String facet : List.of(SPECIES, ADOPTION_TYPE, CITY)) {
+                Map<String, Integer> valueCounts = new TreeMap<>();
+                for (Map.Entry<String, RoaringBitmap> value : facets.getOrDefault(facet, Map.of()).entrySet()) {
+                    int count = RoaringBitmap.andCardinality(value.getValue(), scope);
+                    if (count > 0) {
+                        valueCounts.put(value.getKey(), count);
+                    }
+                }
+                result.put(facet, valueCounts);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap valueBitmap(String facet, String value) {
+        return facets.getOrDefault(facet, Map.of()).getOrDefault(value, new RoaringBitmap());
+    }
+
+    private RoaringBitmap adoptionTypeBitmap(Collection<String> adoptionTypes) {
+        List<RoaringBitmap> matching = new ArrayList<>();
+        for (Map.Entry<String, RoaringBitmap> value : facets.getOrDefault(ADOPTION_TYPE, Map.of()).entrySet()) {
+            for (String requestedType : adoptionTypes) {
+                String normalizedRequested = normalize(requestedType);
+                if (value.getKey().equals(normalizedRequested) ||
+                        value.getKey().contains(normalizedRequested) ||
+                        normalizedRequested.contains(value.getKey())) {
+                    matching.add(value.getValue());
+                    break;
+                }
+            }
+        }
+        return RoaringBitmap.or(matching.toArray(new RoaringBitmap[0]));
+    }
+
+    private void indexLocked(Animal animal, GeoJsonPoint ownerLocation) {
+        int ordinal = animalOrdinals.ordinalOf(animal.getId());
+        live.add(ordinal);
+
+        if (animal.getSpecies() != null && !animal.getSpecies().isBlank()) {
+            addLocked(SPECIES, normalize(animal.getSpecies()), ordinal);
+        }
+        if (animal.getTypesOfAdoptions() != null) {
+            for (String type : animal.getTypesOfAdoptions()) {
+                if (type != null && !type.isBlank()) {
+                    addLocked(ADOPTION_TYPE, normalize(type), ordinal);
+                }
+            }
+        }
+        if (ownerLocation != null) {
+            String city = cityLocator.nearestCity(ownerLocation.getY(), ownerLocation.getX());
+            if (city != null) {
+                addLocked(CITY, city, ordinal);
+            }
+        }
+    }
+
+    private void addLocked(String facet, String value, int ordinal) {
+        facets.computeIfAbsent(facet, f -> new HashMap<>())
+                .computeIfAbsent(value, v -> new RoaringBitmap())
+                .add(ordinal);
+    }
+
+    private void removeLocked(int ordinal) {
+        live.remove(ordinal);
+        for (Map<String, RoaringBitmap> values : facets.values()) {
+            values.values().removeIf(bitmap -> {
+                bitmap.remove(ordinal);
+                return bitmap.isEmpty();
+            });
+        }
+    }
+
+    private String normalize(String text) {
+        if (text == null) return "";
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
+                .toLowerCase()
+                .trim();
+    }
+}
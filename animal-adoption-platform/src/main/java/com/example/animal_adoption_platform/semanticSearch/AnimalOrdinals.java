@@ -0,0 +1,42 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Atribuie fiecărui animal un ordinal dens (0, 1, 2, ...) folosit de indexurile pe bitmap-uri.
+ * Ordinalele nu sunt refolosite după ștergere; indexurile scot doar ordinalul din bitmap-uri.
+ */
+@Component
+public class AnimalOrdinals {
+
+    private final Map<String, Integer> ordinalsById = new ConcurrentHashMap<>();
+    private final List<String> idsByOrdinal = new ArrayList<>();
+
+    public int ordinalOf(String animalId) {
+        Integer existing = ordinalsById.get(animalId);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (idsByOrdinal) {
+            return ordinalsById.computeIfAbsent(animalId, id -> {
+                idsByOrdinal.add(id);
+                return idsByOrdinal.size() - 1;
+            });
+        }
+    }
+
+    public Integer find(String animalId) {
+        return ordinalsById.get(animalId);
+    }
+
+    public String idOf(int ordinal) {
+        synchronized (idsByOrdinal) {
+            return ordinal < idsByOrdinal.size() ? idsByOrdinal.get(ordinal) : null;
+        }
+    }
+}
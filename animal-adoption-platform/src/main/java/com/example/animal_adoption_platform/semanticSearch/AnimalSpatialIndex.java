@@ -0,0 +1,228 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import com.example.animal_adoption_platform.event.AnimalDeletedEvent;
+import com.example.animal_adoption_platform.event.AnimalSavedEvent;
+import com.example.animal_adoption_platform.event.UserLocationChangedEvent;
+import com.example.animal_adoption_platform.model.Animal;
+import com.example.animal_adoption_platform.model.User;
+import com.example.animal_adoption_platform.repository.UserRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grilă geografică în memorie: fiecare celulă de 0,1° ține bitmap-ul
+ * ordinalelor animalelor ai căror proprietari se află în ea. O căutare pe rază vizitează doar
+ * celulele care acoperă dreptunghiul încadrator, verifică ieftin dreptunghiul și calculează
+ * distanța exactă doar pentru animalele rămase.
+ */
+@Component
+public class AnimalSpatialIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnimalSpatialIndex.class);
+
+    static final double CELL_SIZE_DEGREES = 0.1;
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AnimalOrdinals animalOrdinals;
+
+    private final Map<Long, RoaringBitmap> cells = new HashMap<>();
+    private final Map<String, RoaringBitmap> ordinalsByOwner = new HashMap<>();
+    private String[] ownerByOrdinal = new String[0];
+    private double[] latitudes = new double[0];
+    private double[] longitudes = new double[0];
+    private final RoaringBitmap located = new RoaringBitmap();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            Query userQuery = new Query(Criteria.where("location").exists(true));
+            userQuery.fields().include("location");
+            Map<String, GeoJsonPoint> ownerLocations = new HashMap<>();
+            for (User user : mongoTemplate.find(userQuery, User.class)) {
+                ownerLocations.put(user.getId(), user.getLocation());
+            }
+
+            Query animalQuery = new Query();
+            animalQuery.fields().include("userId");
+            List<Animal> animals = mongoTemplate.find(animalQuery, Animal.class);
+
+            lock.writeLock().lock();
+            try {
+                cells.clear();
+                ordinalsByOwner.clear();
+                located.clear();
+                for (Animal animal : animals) {
+                    placeLocked(animalOrdinals.ordinalOf(animal.getId()), animal.getUserId(),
+                            ownerLocations.get(animal.getUserId()));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Spatial index built: {} located animals in {} cells", located.getCardinality(), cells.size());
+        } catch (Exception e) {
+            logger.warn("Could not build spatial index at startup: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onAnimalSaved(AnimalSavedEvent event) {
+        Animal animal = event.getAnimal();
+        GeoJsonPoint ownerLocation = null;
+        if (animal.getUserId() != null) {
+            ownerLocation = userRepository.findById(animal.getUserId()).map(User::getLocation).orElse(null);
+        }
+        int ordinal = animalOrdinals.ordinalOf(animal.getId());
+        lock.writeLock().lock();
+        try {
+            removeLocked(ordinal);
+            placeLocked(ordinal, animal.getUserId(), ownerLocation);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onAnimalDeleted(AnimalDeletedEvent event) {
+        Integer ordinal = animalOrdinals.find(event.getAnimalId());
+        if (ordinal == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onUserLocationChanged(UserLocationChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap owned = ordinalsByOwner.get(event.getUserId());
+            if (owned == null) {
+                return;
+            }
+            for (int ordinal : owned.toArray()) {
+                removeLocked(ordinal);
+                placeLocked(ordinal, event.getUserId(), event.getLocation());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ordinalele animalelor aflate la cel mult {@code radiusKm} kilometri de punctul dat.
+     */
+    public RoaringBitmap withinRadius(double latitude, double longitude, double radiusKm) {
+        double latDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double lonDelta = radiusKm / (KM_PER_DEGREE_LATITUDE * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+        double minLat = latitude - latDelta;
+        double maxLat = latitude + latDelta;
+        double minLon = longitude - lonDelta;
+        double maxLon = longitude + lonDelta;
+
+        RoaringBitmap result = new RoaringBitmap();
+        lock.readLock().lock();
+        try {
+            for (long row = cellIndex(minLat); row <= cellIndex(maxLat); row++) {
+                for (long column = cellIndex(minLon); column <= cellIndex(maxLon); column++) {
+                    RoaringBitmap cell = cells.get(cellKey(row, column));
+                    if (cell == null) continue;
+
+                    for (int ordinal : cell) {
+                        double lat = latitudes[ordinal];
+                        double lon = longitudes[ordinal];
+                        if (lat < minLat || lat > maxLat || lon < minLon || lon > maxLon) continue;
+                        if (GeoDistance.haversine(latitude, longitude, lat, lon) <= radiusKm) {
+                            result.add(ordinal);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private void placeLocked(int ordinal, String ownerId, GeoJsonPoint location) {
+        ensureCapacityLocked(ordinal);
+        ownerByOrdinal[ordinal] = ownerId;
+        if (ownerId != null) {
+            ordinalsByOwner.computeIfAbsent(ownerId, id -> new RoaringBitmap()).add(ordinal);
+        }
+        if (location == null) {
+            return;
+        }
+        latitudes[ordinal] = location.getY();
+        longitudes[ordinal] = location.getX();
+        located.add(ordinal);
+        cells.computeIfAbsent(cellKey(cellIndex(location.getY()), cellIndex(location.getX())), k -> new RoaringBitmap())
+                .add(ordinal);
+    }
+
+    private void removeLocked(int ordinal) {
+        if (ordinal >= ownerByOrdinal.length) {
+            return;
+        }
+        String ownerId = ownerByOrdinal[ordinal];
+        if (ownerId != null) {
+            RoaringBitmap owned = ordinalsByOwner.get(ownerId);
+            if (owned != null) {
+                owned.remove(ordinal);
+                if (owned.isEmpty()) ordinalsByOwner.remove(ownerId);
+            }
+            ownerByOrdinal[ordinal] = null;
+        }
+        if (located.contains(ordinal)) {
+            long key = cellKey(cellIndex(latitudes[ordinal]), cellIndex(longitudes[ordinal]));
+            RoaringBitmap cell = cells.get(key);
+            if (cell != null) {
+                cell.remove(ordinal);
+                if (cell.isEmpty()) cells.remove(key);
+            }
+            located.remove(ordinal);
+        }
+    }
+
+    private void ensureCapacityLocked(int ordinal) {
+        if (ordinal < ownerByOrdinal.length) {
+            return;
+        }
+        int capacity = Math.max(ordinal + 1, ownerByOrdinal.length * 2);
+        ownerByOrdinal = Arrays.copyOf(ownerByOrdinal, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+    }
+
+    private static long cellIndex(double degrees) {
+        return (long) Math.floor(degrees / CELL_SIZE_DEGREES);
+    }
+
+    private static long cellKey(long row, long column) {
+        return (row << 32) | (column & 0xffffffffL);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Geocodare offline pe baza localităților din {@code gazetteer/ro-localities.csv} (nume, județ,
+ * coordonate, populație): nume de localitate -> coordonate și coordonate -> cea mai apropiată
+ * localitate, printr-un arbore k-d încărcat o singură dată la pornire. Setul de date poate fi
+ * înlocuit cu unul complet în același format.
+ */
+@Component
+public class CityLocator {
+
+    public static final double CITY_RADIUS_KM = 20.0;
+    // un punct mai departe de orice localitate cunoscută este considerat în afara țării
+    private static final double COUNTY_RADIUS_KM = 60.0;
+    private static final String DATASET = "gazetteer/ro-localities.csv";
+    // nume scurte folosite uzual; prefixul dinaintea cratimei nu e în general un nume valid („popesti”)
+    private static final Map<String, String> SHORT_NAMES = Map.of(
+            "cluj", "cluj-napoca",
+            "drobeta", "drobeta-turnu severin",
+            "turnu severin", "drobeta-turnu severin",
+            "severin", "drobeta-turnu severin");
+
+    private final Map<String, Locality> byName = new HashMap<>();
+    private final LocalityKdTree tree;
+
+    public CityLocator() {
+        List<Locality> localities = load();
+        for (Locality locality : localities) {
+            for (String alias : aliases(locality.getKey())) {
+                // la nume identice câștigă localitatea mai mare
+                byName.merge(alias, locality, (a, b) -> a.getPopulation() >= b.getPopulation() ? a : b);
+            }
+        }
+        SHORT_NAMES.forEach((alias, key) -> {
+            Locality locality = byName.get(key);
+            if (locality != null) {
+                byName.putIfAbsent(alias, locality);
+            }
+        });
+        tree = new LocalityKdTree(localities);
+    }
+
+    public double[] coordinatesOf(String normalizedCity) {
+        Locality locality = find(normalizedCity);
+        return locality != null ? new double[]{locality.getLatitude(), locality.getLongitude()} : null;
+    }
+
+    /**
+     * Localitatea cu numele dat (normalizat sau nu); acceptă și numele scurte, ca „cluj” pentru Cluj-Napoca.
+     */
+    public Locality find(String city) {
+        return city == null ? null : byName.get(normalize(city));
+    }
+
+    /**
+     * Cheia canonică a unei localități după nume, sau numele normalizat dacă localitatea nu este cunoscută.
+     */
+    public String keyOf(String city) {
+        Locality locality = find(city);
+        return locality != null ? locality.getKey() : normalize(city);
+    }
+
+    /**
+     * Cea mai apropiată localitate aflată la cel mult {@code maxDistanceKm}, sau null.
+     */
+    public Locality nearest(double latitude, double longitude, double maxDistanceKm) {
+        Locality nearest = tree.nearest(latitude, longitude);
+        if (nearest == null || GeoDistance.haversine(latitude, longitude,
+                nearest.getLatitude(), nearest.getLongitude()) > maxDistanceKm) {
+            return null;
+        }
+        return nearest;
+    }
+
+    /**
+     * Regiunea folosită pentru partiționarea indexului de căutare: județul celei mai apropiate
+     * localități, altfel o celulă de 1°.
+     */
+    public String regionOf(double latitude, double longitude) {
+        Locality locality = nearest(latitude, longitude, COUNTY_RADIUS_KM);
+        if (locality != null) {
+            return "county:" + normalize(locality.getCounty());
+        }
+        return "cell:" + (int) Math.floor(latitude) + ":" + (int) Math.floor(longitude);
+    }
+
+    public String nearestCity(double latitude, double longitude) {
+        Locality locality = nearest(latitude, longitude, CITY_RADIUS_KM);
+        return locality != null ? locality.getKey() : null;
+    }
+
+    private static List<Locality> load() {
+        List<Locality> localities = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(DATASET).getInputStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine(); // antet
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                String[] columns = line.split(",");
+                localities.add(new Locality(normalize(columns[0]), columns[0].trim(), columns[1].trim(),
+                        Double.parseDouble(columns[2]), Double.parseDouble(columns[3]),
+                        columns.length > 4 ? Integer.parseInt(columns[4].trim()) : 0));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load " + DATASET, e);
+        }
+        return localities;
+    }
+
+    private static Set<String> aliases(String key) {
+        Set<String> aliases = new LinkedHashSet<>();
+        aliases.add(key);
+        aliases.add(key.replace('-', ' '));
+        return aliases;
+    }
+
+    static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
+                .toLowerCase()
+                .trim();
+    }
+}
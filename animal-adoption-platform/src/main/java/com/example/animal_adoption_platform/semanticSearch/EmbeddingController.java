@@ -1,6 +1,8 @@
 package com.example.animal_adoption_platform.semanticSearch;
 
+import com.example.animal_adoption_platform.dto.AnimalSummaryDTO;
 import com.example.animal_adoption_platform.model.Animal;
+import com.example.animal_adoption_platform.service.AnimalService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,10 +19,31 @@ public class EmbeddingController {
 
     @Autowired
     private SemanticSearchService semanticSearchService;
+    @Autowired
+    private AnimalFacetIndex animalFacetIndex;
+    @Autowired
+    private AnimalService animalService;
 
     @GetMapping("/semantic-search")
-    public List<Animal> semanticSearch(@RequestParam String query, @RequestParam(defaultValue = "5") int topN, @RequestParam List<String> typesOfAdoption) {
-        return semanticSearchService.semanticSearch(query, topN, typesOfAdoption);
+    public List<AnimalSummaryDTO> semanticSearch(@RequestParam String query, @RequestParam(defaultValue = "5") int topN, @RequestParam List<String> typesOfAdoption) {
+        List<Animal> animals = semanticSearchService.semanticSearch(query, topN, typesOfAdoption);
+        return animalService.getAnimalSummariesByIds(animals.stream().map(Animal::getId).toList());
+    }
+
+    @GetMapping("/faceted-search")
+    public FacetedSearchResult facetedSearch(@RequestParam String query,
+                                             @RequestParam(defaultValue = "5") int topN,
+                                             @RequestParam(required = false) List<String> typesOfAdoption,
+                                             @RequestParam(required = false) String species,
+                                             @RequestParam(required = false) String city) {
+        return semanticSearchService.facetedSearch(query, topN, typesOfAdoption, species, city);
+    }
+
+    @GetMapping("/facets")
+    public Map<String, Map<String, Integer>> facetCounts(@RequestParam(required = false) String species,
+                                                         @RequestParam(required = false) List<String> typesOfAdoption,
+                                                         @RequestParam(required = false) String city) {
+        return animalFacetIndex.counts(animalFacetIndex.filter(species, typesOfAdoption, city));
     }
 
 
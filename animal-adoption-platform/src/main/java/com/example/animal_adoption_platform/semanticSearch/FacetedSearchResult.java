@@ -0,0 +1,16 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import com.example.animal_adoption_platform.dto.AnimalSummaryDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class FacetedSearchResult {
+    private List<AnimalSummaryDTO> results;
+    private int totalCandidates;
+    private Map<String, Map<String, Integer>> facets;
+}
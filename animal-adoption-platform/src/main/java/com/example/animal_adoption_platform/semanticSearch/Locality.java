@@ -0,0 +1,23 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * O localitate din setul de date {@code gazetteer/ro-localities.csv}. {@code key} este numele
+ * normalizat (fără diacritice, litere mici), folosit ca valoare de fațetă și pentru căutarea după nume.
+ */
+@Getter
+@AllArgsConstructor
+public class Locality {
+    private final String key;
+    private final String name;
+    private final String county;
+    private final double latitude;
+    private final double longitude;
+    private final int population;
+
+    public String label() {
+        return name + ", " + county;
+    }
+}
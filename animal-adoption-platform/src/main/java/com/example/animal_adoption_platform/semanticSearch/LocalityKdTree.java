@@ -0,0 +1,92 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Arbore k-d (3 dimensiuni) peste localități, ținut implicit într-un array: nodul unui interval
+ * este elementul din mijloc, iar jumătățile stânga/dreapta sunt subarborii. Fiecare punct este
+ * vectorul unitate de pe sferă; coarda dintre două puncte crește strict cu distanța pe glob, deci
+ * cel mai apropiat punct după coardă este și cel mai apropiat după haversine, fără distorsiunile
+ * unei proiecții plane.
+ */
+class LocalityKdTree {
+
+    private static final int DIMENSIONS = 3;
+
+    private final Locality[] nodes;
+    private final double[][] points;
+
+    LocalityKdTree(List<Locality> localities) {
+        nodes = localities.toArray(new Locality[0]);
+        points = new double[nodes.length][];
+        build(0, nodes.length, 0);
+        for (int i = 0; i < nodes.length; i++) {
+            points[i] = project(nodes[i].getLatitude(), nodes[i].getLongitude());
+        }
+    }
+
+    int size() {
+        return nodes.length;
+    }
+
+    Locality nearest(double latitude, double longitude) {
+        if (nodes.length == 0) {
+            return null;
+        }
+        double[] query = project(latitude, longitude);
+        Best best = new Best();
+        search(query, 0, nodes.length, 0, best);
+        return nodes[best.index];
+    }
+
+    private void build(int from, int to, int depth) {
+        if (to - from <= 1) {
+            return;
+        }
+        int axis = depth % DIMENSIONS;
+        Comparator<Locality> byAxis = Comparator.comparingDouble(l -> project(l.getLatitude(), l.getLongitude())[axis]);
+        Arrays.sort(nodes, from, to, byAxis);
+        int middle = (from + to) >>> 1;
+        build(from, middle, depth + 1);
+        build(middle + 1, to, depth + 1);
+    }
+
+    private void search(double[] query, int from, int to, int depth, Best best) {
+        if (from >= to) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        double[] point = points[middle];
+        double distance = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            double delta = query[i] - point[i];
+            distance += delta * delta;
+        }
+        if (distance < best.distance) {
+            best.distance = distance;
+            best.index = middle;
+        }
+
+        double axisDelta = query[depth % DIMENSIONS] - point[depth % DIMENSIONS];
+        if (axisDelta < 0) {
+            search(query, from, middle, depth + 1, best);
+            if (axisDelta * axisDelta < best.distance) search(query, middle + 1, to, depth + 1, best);
+        } else {
+            search(query, middle + 1, to, depth + 1, best);
+            if (axisDelta * axisDelta < best.distance) search(query, from, middle, depth + 1, best);
+        }
+    }
+
+    private static double[] project(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        return new double[]{Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+    }
+
+    private static class Best {
+        int index = -1;
+        double distance = Double.MAX_VALUE;
+    }
+}
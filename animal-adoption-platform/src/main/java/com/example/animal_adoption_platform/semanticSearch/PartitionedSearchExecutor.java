@@ -0,0 +1,170 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import com.example.animal_adoption_platform.event.AnimalDeletedEvent;
+import com.example.animal_adoption_platform.event.AnimalSavedEvent;
+import com.example.animal_adoption_platform.event.UserLocationChangedEvent;
+import com.example.animal_adoption_platform.model.Animal;
+import jakarta.annotation.PreDestroy;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Indexul de căutare împărțit pe regiuni (derivate din locația proprietarului). Interogările
+ * ale căror filtre ating o singură partiție (de obicei cele cu locație) rulează doar acolo;
+ * celelalte sunt trimise în paralel tuturor partițiilor, iar top-K-urile locale sunt combinate.
+ */
+@Component
+public class PartitionedSearchExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedSearchExecutor.class);
+
+    static final String UNLOCATED_REGION = "unlocated";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private AnimalOrdinals animalOrdinals;
+    @Autowired
+    private CityLocator cityLocator;
+    @Autowired
+    private AnimalEmbeddingStore animalEmbeddingStore;
+
+    private final Map<String, SearchPartition> partitions = new ConcurrentHashMap<>();
+    private final Map<Integer, String> regionByOrdinal = new ConcurrentHashMap<>();
+    private final ExecutorService searchPool =
+            Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            Query query = new Query();
+            query.fields().include("name", "species", "description", "location");
+            List<Animal> animals = mongoTemplate.find(query, Animal.class);
+
+            partitions.clear();
+            regionByOrdinal.clear();
+            for (Animal animal : animals) {
+                put(animal);
+            }
+            animalEmbeddingStore.forEach((animalId, embedding) -> {
+                Integer ordinal = animalOrdinals.find(animalId);
+                String region = ordinal != null ? regionByOrdinal.get(ordinal) : null;
+                if (region != null) {
+                    partitions.get(region).putVector(ordinal, embedding);
+                }
+            });
+            logger.info("Search partitions built: {}", partitionSizes());
+        } catch (Exception e) {
+            logger.warn("Could not build search partitions at startup: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onAnimalSaved(AnimalSavedEvent event) {
+        Animal animal = event.getAnimal();
+        if (animal.getEmbeddings() == null) {
+            animalEmbeddingStore.attach(animal);
+        }
+        put(animal);
+    }
+
+    @EventListener
+    public void onAnimalDeleted(AnimalDeletedEvent event) {
+        Integer ordinal = animalOrdinals.find(event.getAnimalId());
+        if (ordinal != null) {
+            remove(ordinal);
+        }
+    }
+
+    @EventListener
+    public void onUserLocationChanged(UserLocationChangedEvent event) {
+        Query query = new Query(Criteria.where("userId").is(event.getUserId()));
+        query.fields().include("name", "species", "description");
+        for (Animal animal : animalEmbeddingStore.attach(mongoTemplate.find(query, Animal.class))) {
+            animal.setLocation(event.getLocation());
+            put(animal);
+        }
+    }
+
+    /**
+     * Cele mai bune {@code k} ordinale pentru interogare, ordonate descrescător după scor.
+     */
+    public List<SearchPartition.Hit> search(List<Float> queryEmbedding, String queryText, RoaringBitmap allowed, int k) {
+        float[] queryVector = SearchPartition.toUnitVector(queryEmbedding);
+        List<String> queryTerms = SearchPartition.tokenize(queryText);
+
+        List<SearchPartition> targets = partitions.values().stream()
+                .filter(partition -> allowed == null || partition.intersects(allowed))
+                .collect(Collectors.toList());
+
+        List<SearchPartition.Hit> hits;
+        if (targets.size() == 1) {
+            hits = targets.get(0).search(queryVector, queryTerms, allowed, k);
+        } else {
+            List<CompletableFuture<List<SearchPartition.Hit>>> futures = targets.stream()
+                    .map(partition -> CompletableFuture.supplyAsync(
+                            () -> partition.search(queryVector, queryTerms, allowed, k), searchPool))
+                    .collect(Collectors.toList());
+            hits = new ArrayList<>();
+            for (CompletableFuture<List<SearchPartition.Hit>> future : futures) {
+                hits.addAll(future.join());
+            }
+        }
+
+        hits.sort((a, b) -> Float.compare(b.getScore(), a.getScore()));
+        return hits.size() > k ? new ArrayList<>(hits.subList(0, k)) : hits;
+    }
+
+    public Map<String, Integer> partitionSizes() {
+        return partitions.values().stream()
+                .collect(Collectors.toMap(SearchPartition::getRegion, SearchPartition::size));
+    }
+
+    private void put(Animal animal) {
+        int ordinal = animalOrdinals.ordinalOf(animal.getId());
+        String region = regionOf(animal.getLocation());
+        String previousRegion = regionByOrdinal.put(ordinal, region);
+        if (previousRegion != null && !previousRegion.equals(region)) {
+            SearchPartition previous = partitions.get(previousRegion);
+            if (previous != null) previous.remove(ordinal);
+        }
+        partitions.computeIfAbsent(region, SearchPartition::new)
+                .put(ordinal, animal.getEmbeddings(), animal.getName(), animal.getSpecies(), animal.getDescription());
+    }
+
+    private void remove(int ordinal) {
+        String region = regionByOrdinal.remove(ordinal);
+        if (region != null) {
+            SearchPartition partition = partitions.get(region);
+            if (partition != null) partition.remove(ordinal);
+        }
+    }
+
+    private String regionOf(GeoJsonPoint location) {
+        if (location == null) {
+            return UNLOCATED_REGION;
+        }
+        return cityLocator.regionOf(location.getY(), location.getX());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        searchPool.shutdownNow();
+    }
+}
@@ -214,7 +214,7 @@ public class RDF2VecService {
             queryFloatArray[i] = queryEmbedding.get(i);
         }
 
-        List<Animal> allAnimals = animalRepository.findAll();
+        List<Animal> allAnimals = animalRepository.findSearchCandidates(null, null, null);
         List<SimilarityScore> similarities = new ArrayList<>();
 
         for (Animal animal : allAnimals) {
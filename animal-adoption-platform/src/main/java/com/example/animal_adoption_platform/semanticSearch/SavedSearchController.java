@@ -0,0 +1,35 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import com.example.animal_adoption_platform.model.SavedSearch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/saved-searches")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class SavedSearchController {
+
+    @Autowired
+    private SavedSearchPercolator savedSearchPercolator;
+
+    @PostMapping
+    public SavedSearch saveSearch(@RequestParam String userId,
+                                  @RequestParam String query,
+                                  @RequestParam(required = false) List<String> typesOfAdoption) {
+        return savedSearchPercolator.save(userId, query, typesOfAdoption);
+    }
+
+    @GetMapping("/{userId}")
+    public List<SavedSearch> getSavedSearches(@PathVariable String userId) {
+        return savedSearchPercolator.findByUser(userId);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<String> deleteSavedSearch(@PathVariable String id) {
+        savedSearchPercolator.delete(id);
+        return ResponseEntity.ok("Saved search deleted successfully");
+    }
+}
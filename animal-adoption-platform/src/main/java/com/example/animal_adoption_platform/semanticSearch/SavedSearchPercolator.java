@@ -0,0 +1,332 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import com.example.animal_adoption_platform.event.AnimalCreatedEvent;
+import com.example.animal_adoption_platform.model.Animal;
+import com.example.animal_adoption_platform.model.SavedSearch;
+import com.example.animal_adoption_platform.repository.SavedSearchRepository;
+import com.example.animal_adoption_platform.service.NotificationService;
+import org.bson.types.Binary;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Căutare inversă pentru alertele pe căutări salvate: căutările sunt indexate după filtrele lor
+ * structurate (specie, tip de adopție, celule geografice acoperite), iar un animal nou este
+ * comparat doar cu căutările ale căror filtre le satisface. Pragul pe embedding se aplică
+ * numai acestui subset.
+ */
+@Component
+public class SavedSearchPercolator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchPercolator.class);
+
+    public static final float DEFAULT_THRESHOLD = 0.55f;
+
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+    @Autowired
+    private EmbeddingService embeddingService;
+    @Autowired
+    private RDFGraphService rdfGraphService;
+    @Autowired
+    private CityLocator cityLocator;
+    @Autowired
+    private NotificationService notificationService;
+
+    private final List<Registered> slots = new ArrayList<>();
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    private final Map<String, RoaringBitmap> bySpecies = new HashMap<>();
+    private final RoaringBitmap anySpecies = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> byAdoptionType = new HashMap<>();
+    private final RoaringBitmap anyAdoptionType = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byCell = new HashMap<>();
+    private final RoaringBitmap anyLocation = new RoaringBitmap();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            List<SavedSearch> searches = savedSearchRepository.findAll();
+            lock.writeLock().lock();
+            try {
+                searches.forEach(this::registerLocked);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Saved-search percolator loaded {} searches", searches.size());
+        } catch (Exception e) {
+            logger.warn("Could not load saved searches at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Salvează căutarea după ce o analizează o singură dată: specia și orașul sunt extrase din text,
+     * iar interogarea este transformată în embedding.
+     */
+    public SavedSearch save(String userId, String query, List<String> adoptionTypes) {
+        Map<String, String> extracted = rdfGraphService.extractSpeciesAndLocation(query);
+
+        SavedSearch search = new SavedSearch();
+        search.setUserId(userId);
+        search.setQuery(query);
+        String species = extracted.get("species");
+        search.setSpecies(species != null && !species.isBlank() ? normalize(species) : null);
+        search.setAdoptionTypes(adoptionTypes == null ? new ArrayList<>()
+                : adoptionTypes.stream().filter(t -> t != null && !t.isBlank()).map(this::normalize).distinct().toList());
+        String location = extracted.get("location");
+        double[] coordinates = location != null ? cityLocator.coordinatesOf(rdfGraphService.normalizeLocation(location)) : null;
+        if (coordinates != null) {
+            search.setLatitude(coordinates[0]);
+            search.setLongitude(coordinates[1]);
+            search.setRadiusKm(CityLocator.CITY_RADIUS_KM);
+        }
+        List<Float> embedding = embeddingService.embedTexts(List.of(query)).get(0);
+        search.setQueryEmbedding(new Binary(AnimalEmbeddingStore.pack(embedding)));
+        search.setThreshold(DEFAULT_THRESHOLD);
+        search.setCreatedAt(LocalDateTime.now());
+
+        SavedSearch saved = savedSearchRepository.save(search);
+        lock.writeLock().lock();
+        try {
+            registerLocked(saved);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return saved;
+    }
+
+    public List<SavedSearch> findByUser(String userId) {
+        return savedSearchRepository.findByUserId(userId);
+    }
+
+    public void delete(String savedSearchId) {
+        savedSearchRepository.deleteById(savedSearchId);
+        lock.writeLock().lock();
+        try {
+            unregisterLocked(savedSearchId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onAnimalCreated(AnimalCreatedEvent event) {
+        Animal animal = event.getAnimal();
+        for (Match match : percolate(animal, embeddingOf(animal))) {
+            SavedSearch search = match.search;
+            if (Objects.equals(search.getUserId(), animal.getUserId())) continue;
+            Map<String, Object> data = new HashMap<>();
+            data.put("savedSearchId", search.getId());
+            data.put("query", search.getQuery());
+            data.put("animalId", animal.getId());
+            data.put("name", animal.getName());
+            data.put("species", animal.getSpecies());
+            data.put("score", match.score);
+            notificationService.sendToUser(search.getUserId(), NotificationService.ANIMAL_MATCH, data);
+        }
+    }
+
+    /**
+     * Animalele create din editor nu au încă embedding (acesta se calculează ulterior), așa că
+     * descrierea este transformată aici; null dacă nu există descriere sau modelul nu răspunde.
+     */
+    private List<Float> embeddingOf(Animal animal) {
+        if (animal.getEmbeddings() != null) {
+            return animal.getEmbeddings();
+        }
+        if (animal.getDescription() == null || animal.getDescription().isBlank()) {
+            return null;
+        }
+        try {
+            return embeddingService.embedTexts(List.of(animal.getDescription())).get(0);
+        } catch (Exception e) {
+            logger.warn("Could not embed animal {} for saved-search alerts: {}", animal.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Căutările salvate care se potrivesc animalului. O căutare cu embedding se potrivește doar dacă
+     * animalul are un vector comparabil și scorul atinge pragul; fără vector pe animal rămân doar
+     * căutările fără embedding.
+     */
+    public List<Match> percolate(Animal animal, List<Float> embedding) {
+        float[] animalVector = SearchPartition.toUnitVector(embedding);
+        List<Match> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = RoaringBitmap.or(anySpecies,
+                    bySpecies.getOrDefault(normalize(animal.getSpecies()), new RoaringBitmap()));
+
+            RoaringBitmap typeMatches = anyAdoptionType.clone();
+            if (animal.getTypesOfAdoptions() != null) {
+                for (String type : animal.getTypesOfAdoptions()) {
+                    RoaringBitmap bitmap = byAdoptionType.get(normalize(type));
+                    if (bitmap != null) typeMatches.or(bitmap);
+                }
+            }
+            candidates.and(typeMatches);
+
+            RoaringBitmap locationMatches = anyLocation.clone();
+            if (animal.getLocation() != null) {
+                RoaringBitmap cell = byCell.get(cellKey(animal.getLocation().getY(), animal.getLocation().getX()));
+                if (cell != null) locationMatches.or(cell);
+            }
+            candidates.and(locationMatches);
+
+            for (int slot : candidates) {
+                Registered registered = slots.get(slot);
+                SavedSearch search = registered.search;
+                if (search.getLatitude() != null) {
+                    double distance = GeoDistance.haversine(search.getLatitude(), search.getLongitude(),
+                            animal.getLocation().getY(), animal.getLocation().getX());
+                    if (distance > search.getRadiusKm()) continue;
+                }
+                float score = 1f;
+                if (registered.vector != null) {
+                    if (animalVector == null || animalVector.length != registered.vector.length) continue;
+                    score = dot(animalVector, registered.vector);
+                    if (score < search.getThreshold()) continue;
+                }
+                matches.add(new Match(search, score));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    private void registerLocked(SavedSearch search) {
+        unregisterLocked(search.getId());
+        int slot = freeSlots.isEmpty() ? slots.size() : freeSlots.pop();
+        float[] vector = search.getQueryEmbedding() != null
+                ? SearchPartition.toUnitVector(AnimalEmbeddingStore.unpack(search.getQueryEmbedding().getData()))
+                : null;
+        Registered registered = new Registered(search, vector, new ArrayList<>());
+        if (slot == slots.size()) slots.add(registered); else slots.set(slot, registered);
+        slotById.put(search.getId(), slot);
+
+        if (search.getSpecies() == null) {
+            anySpecies.add(slot);
+        } else {
+            bySpecies.computeIfAbsent(search.getSpecies(), k -> new RoaringBitmap()).add(slot);
+        }
+        if (search.getAdoptionTypes() == null || search.getAdoptionTypes().isEmpty()) {
+            anyAdoptionType.add(slot);
+        } else {
+            for (String type : search.getAdoptionTypes()) {
+                byAdoptionType.computeIfAbsent(type, k -> new RoaringBitmap()).add(slot);
+            }
+        }
+        if (search.getLatitude() == null) {
+            anyLocation.add(slot);
+        } else {
+            // căutarea este înscrisă în toate celulele care acoperă cercul ei
+            double latDelta = search.getRadiusKm() / 111.32;
+            double lonDelta = search.getRadiusKm() / (111.32 * Math.max(0.01, Math.cos(Math.toRadians(search.getLatitude()))));
+            for (long row = cellIndex(search.getLatitude() - latDelta); row <= cellIndex(search.getLatitude() + latDelta); row++) {
+                for (long column = cellIndex(search.getLongitude() - lonDelta); column <= cellIndex(search.getLongitude() + lonDelta); column++) {
+                    long key = (row << 32) | (column & 0xffffffffL);
+                    byCell.computeIfAbsent(key, k -> new RoaringBitmap()).add(slot);
+                    registered.cells.add(key);
+                }
+            }
+        }
+    }
+
+    private void unregisterLocked(String savedSearchId) {
+        Integer slot = savedSearchId != null ? slotById.remove(savedSearchId) : null;
+        if (slot == null) {
+            return;
+        }
+        Registered registered = slots.get(slot);
+        anySpecies.remove(slot);
+        anyAdoptionType.remove(slot);
+        anyLocation.remove(slot);
+        removeFrom(bySpecies, slot);
+        removeFrom(byAdoptionType, slot);
+        for (Long key : registered.cells) {
+            RoaringBitmap cell = byCell.get(key);
+            if (cell != null) {
+                cell.remove(slot);
+                if (cell.isEmpty()) byCell.remove(key);
+            }
+        }
+        slots.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    private static void removeFrom(Map<String, RoaringBitmap> index, int slot) {
+        index.values().removeIf(bitmap -> {
+            bitmap.remove(slot);
+            return bitmap.isEmpty();
+        });
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return (cellIndex(latitude) << 32) | (cellIndex(longitude) & 0xffffffffL);
+    }
+
+    private static long cellIndex(double degrees) {
+        return (long) Math.floor(degrees / AnimalSpatialIndex.CELL_SIZE_DEGREES);
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private String normalize(String text) {
+        if (text == null) return "";
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
+                .toLowerCase()
+                .trim();
+    }
+
+    private static class Registered {
+        final SavedSearch search;
+        final float[] vector;
+        final List<Long> cells;
+
+        Registered(SavedSearch search, float[] vector, List<Long> cells) {
+            this.search = search;
+            this.vector = vector;
+            this.cells = cells;
+        }
+    }
+
+    public static class Match {
+        final SavedSearch search;
+        final float score;
+
+        Match(SavedSearch search, float score) {
+            this.search = search;
+            this.score = score;
+        }
+
+        public SavedSearch getSearch() {
+            return search;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+}
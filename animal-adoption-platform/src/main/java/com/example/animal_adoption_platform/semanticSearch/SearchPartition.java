@@ -0,0 +1,246 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * O partiție a indexului de căutare pentru o singură regiune: vectorii de text normalizați ai
+ * animalelor și un index inversat al cuvintelor din nume, specie și descriere.
+ */
+public class SearchPartition {
+
+    private static final float VECTOR_WEIGHT = 0.8f;
+    private static final float LEXICAL_WEIGHT = 0.2f;
+    private static final int MIN_PREFIX_LENGTH = 3;
+
+    private final String region;
+    private final RoaringBitmap members = new RoaringBitmap();
+    private final Map<Integer, float[]> vectors = new HashMap<>();
+    private final TreeMap<String, RoaringBitmap> postings = new TreeMap<>();
+    private final Map<Integer, Set<String>> tokensByOrdinal = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SearchPartition(String region) {
+        this.region = region;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void put(int ordinal, List<Float> embedding, String... texts) {
+        Set<String> tokens = new HashSet<>();
+        for (String text : texts) {
+            tokens.addAll(tokenize(text));
+        }
+        float[] vector = toUnitVector(embedding);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(ordinal);
+            members.add(ordinal);
+            if (vector != null) {
+                vectors.put(ordinal, vector);
+            }
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, t -> new RoaringBitmap()).add(ordinal);
+            }
+            tokensByOrdinal.put(ordinal, tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Înlocuiește doar vectorul unui animal deja indexat (folosit la încărcarea inițială).
+     */
+    public void putVector(int ordinal, float[] embedding) {
+        float[] vector = toUnitVector(embedding);
+        lock.writeLock().lock();
+        try {
+            if (!members.contains(ordinal)) {
+                return;
+            }
+            if (vector != null) {
+                vectors.put(ordinal, vector);
+            } else {
+                vectors.remove(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int ordinal) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean intersects(RoaringBitmap ordinals) {
+        lock.readLock().lock();
+        try {
+            return RoaringBitmap.intersects(members, ordinals);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return members.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cele mai bune {@code k} animale din partiție pentru interogare, limitate la {@code allowed}
+     * (null înseamnă fără restricție).
+     */
+    public List<Hit> search(float[] queryVector, List<String> queryTerms, RoaringBitmap allowed, int k) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap scope = allowed != null ? RoaringBitmap.and(members, allowed) : members;
+            if (scope.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            Map<Integer, Integer> termMatches = new HashMap<>();
+            for (String term : queryTerms) {
+                RoaringBitmap matching = RoaringBitmap.and(termPostingsLocked(term), scope);
+                for (int ordinal : matching) {
+                    termMatches.merge(ordinal, 1, Integer::sum);
+                }
+            }
+
+            PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(h -> h.score));
+            for (int ordinal : scope) {
+                float vectorScore = 0f;
+                float[] vector = vectors.get(ordinal);
+                if (queryVector != null && vector != null && vector.length == queryVector.length) {
+                    vectorScore = dot(queryVector, vector);
+                }
+                float lexicalScore = queryTerms.isEmpty() ? 0f
+                        : (float) termMatches.getOrDefault(ordinal, 0) / queryTerms.size();
+                float score = VECTOR_WEIGHT * vectorScore + LEXICAL_WEIGHT * lexicalScore;
+
+                if (best.size() < k) {
+                    best.add(new Hit(ordinal, score));
+                } else if (score > best.peek().score) {
+                    best.poll();
+                    best.add(new Hit(ordinal, score));
+                }
+            }
+            return new ArrayList<>(best);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap termPostingsLocked(String term) {
+        if (term.length() < MIN_PREFIX_LENGTH) {
+            return postings.getOrDefault(term, new RoaringBitmap());
+        }
+        String prefix = term.substring(0, MIN_PREFIX_LENGTH);
+        Collection<RoaringBitmap> matching = postings.subMap(prefix, prefix + Character.MAX_VALUE).values();
+        return RoaringBitmap.or(matching.iterator());
+    }
+
+    private void removeLocked(int ordinal) {
+        if (!members.contains(ordinal)) {
+            return;
+        }
+        members.remove(ordinal);
+        vectors.remove(ordinal);
+        Set<String> tokens = tokensByOrdinal.remove(ordinal);
+        if (tokens != null) {
+            for (String token : tokens) {
+                RoaringBitmap bitmap = postings.get(token);
+                if (bitmap != null) {
+                    bitmap.remove(ordinal);
+                    if (bitmap.isEmpty()) postings.remove(token);
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
+                .toLowerCase()
+                .trim();
+        for (String token : normalized.split("\\W+")) {
+            if (token.length() >= 2) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    public static float[] toUnitVector(List<Float> embedding) {
+        if (embedding == null || embedding.isEmpty()) {
+            return null;
+        }
+        float[] vector = new float[embedding.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = embedding.get(i);
+        }
+        return normalizeInPlace(vector);
+    }
+
+    static float[] toUnitVector(float[] embedding) {
+        if (embedding == null || embedding.length == 0) {
+            return null;
+        }
+        return normalizeInPlace(embedding.clone());
+    }
+
+    private static float[] normalizeInPlace(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    public static class Hit {
+        final int ordinal;
+        final float score;
+
+        Hit(int ordinal, float score) {
+            this.ordinal = ordinal;
+            this.score = score;
+        }
+
+        public int getOrdinal() {
+            return ordinal;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.animal_adoption_platform.semanticSearch;
 
 import com.example.animal_adoption_platform.model.Animal;
-import com.example.animal_adoption_platform.model.User;
 import com.example.animal_adoption_platform.repository.AnimalRepository;
-import com.example.animal_adoption_platform.repository.UserRepository;
+import com.example.animal_adoption_platform.model.StatsRollup;
+import com.example.animal_adoption_platform.service.AnimalService;
+import com.example.animal_adoption_platform.service.StatsRollupService;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -14,24 +18,37 @@ import java.util.stream.Collectors;
 @Service
 public class SemanticSearchService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SemanticSearchService.class);
+
     @Autowired
     private AnimalRepository animalRepository;
     @Autowired
-    private UserRepository userRepository;
+    private AnimalService animalService;
     @Autowired
     private EmbeddingService embeddingService;
     @Autowired
     private RDFGraphService rdfGraphService;
     @Autowired
     private RDF2VecService rdf2VecService;
+    @Autowired
+    private AnimalFacetIndex animalFacetIndex;
+    @Autowired
+    private AnimalOrdinals animalOrdinals;
+    @Autowired
+    private AnimalSpatialIndex animalSpatialIndex;
+    @Autowired
+    private PartitionedSearchExecutor partitionedSearchExecutor;
+    @Autowired
+    private CityLocator cityLocator;
+    @Autowired
+    private AnimalEmbeddingStore animalEmbeddingStore;
+    @Autowired
+    private StatsRollupService statsRollupService;
 
     private static final float BASE_TEXT_EMBEDDING_WEIGHT = 0.8f;
     private static final float BASE_RDF_EMBEDDING_WEIGHT = 0.2f;
-    private static final Map<String, double[]> CITY_COORDINATES = Map.of(
-            "bucuresti", new double[]{44.4268, 26.1025},
-            "cluj", new double[]{46.7712, 23.6236}
-
-    );
+    private static final int CANDIDATE_POOL_FACTOR = 10;
+    private static final int MIN_CANDIDATE_POOL = 200;
     public List<Animal> semanticSearch(String userQuery, int topN) {
         return enhancedSemanticSearch(userQuery, topN, null);
     }
@@ -39,22 +56,60 @@ public class SemanticSearchService {
         return enhancedSemanticSearch(userQuery, topN, adoptionTypes);
     }
     public List<Animal> enhancedSemanticSearch(String userQuery, int topN, List<String> adoptionTypes) {
+        return rankCandidates(userQuery, topN, adoptionTypes, null, null).scored
+                .stream().limit(topN).map(sa -> sa.animal).collect(Collectors.toList());
+    }
+
+    /**
+     * Căutare hibridă care întoarce și numărul de candidați pe fiecare fațetă. Fațetele selectate
+     * (specie, oraș) restrâng doar rezultatele; numerele sunt calculate pe întregul set de candidați.
+     */
+    public FacetedSearchResult facetedSearch(String userQuery, int topN, List<String> adoptionTypes,
+                                             String selectedSpecies, String selectedCity) {
+        Ranking ranking = rankCandidates(userQuery, topN, adoptionTypes, selectedSpecies, selectedCity);
+
+        List<String> resultIds = ranking.scored.stream().limit(topN)
+                .map(sa -> sa.animal.getId()).collect(Collectors.toList());
+        return new FacetedSearchResult(animalService.getAnimalSummariesByIds(resultIds),
+                ranking.selected.getCardinality(), animalFacetIndex.counts(ranking.candidates));
+    }
+
+    /**
+     * Primul pas selectează din partițiile regionale un set de candidați cu filtrele aplicate pe
+     * bitmap-uri; doar acești candidați sunt încărcați și reclasați cu scorul adaptiv complet.
+     * Fațetele selectate restrâng doar clasamentul, nu și setul de candidați folosit la numărare.
+     */
+    private Ranking rankCandidates(String userQuery, int topN, List<String> adoptionTypes,
+                                   String selectedSpecies, String selectedCity) {
         List<Float> queryEmbedding = embeddingService.embedTexts(List.of(userQuery)).get(0);
         Map<String, String> extracted = rdfGraphService.extractSpeciesAndLocation(userQuery);
         String species = extracted.get("species");
         String location = extracted.get("location");
-        Map<String, User> userMap = userRepository.findAll()
-                .stream()
-                .collect(Collectors.toMap(User::getId, u -> u));
-        List<Animal> animals = getFilteredAnimals(species, adoptionTypes);
-        List<Animal> candidates = filterByLocation(animals, location, userMap);
+
+        RoaringBitmap allowed = animalFacetIndex.filter(species, adoptionTypes, null);
+        RoaringBitmap nearby = findAnimalsNear(location);
+        if (nearby != null) {
+            allowed.and(nearby);
+        }
+        RoaringBitmap selected = allowed;
+        if (selectedSpecies != null || selectedCity != null) {
+            selected = RoaringBitmap.and(allowed, animalFacetIndex.filter(selectedSpecies, null, selectedCity));
+        }
+        int candidatePool = Math.max(topN * CANDIDATE_POOL_FACTOR, MIN_CANDIDATE_POOL);
+        List<String> candidateIds = new ArrayList<>();
+        for (SearchPartition.Hit hit : partitionedSearchExecutor.search(queryEmbedding, userQuery, selected, candidatePool)) {
+            candidateIds.add(animalOrdinals.idOf(hit.getOrdinal()));
+        }
+
+        List<Animal> candidates = animalEmbeddingStore.attach(
+                animalRepository.findSearchCandidates(null, null, null, candidateIds));
         List<ScoredAnimal> scored = calculateAdaptiveSimilarities(candidates, queryEmbedding, userQuery);
 
         scored.sort((a, b) -> {
             return Float.compare(b.similarity, a.similarity);
         });
 
-        return scored.stream().limit(topN).map(sa -> sa.animal).collect(Collectors.toList());
+        return new Ranking(scored, allowed, selected);
     }
 
     private float calculateKeywordMatchScore(Animal animal, String userQuery) {
@@ -248,12 +303,8 @@ public class SemanticSearchService {
         String species = extracted.get("species");
         String location = extracted.get("location");
 
-        Map<String, User> userMap = userRepository.findAll()
-                .stream()
-                .collect(Collectors.toMap(User::getId, u -> u));
-
-        List<Animal> animals = getFilteredAnimals(species, adoptionTypes);
-        List<Animal> candidates = filterByLocation(animals, location, userMap);
+        List<Animal> candidates = animalEmbeddingStore.attach(
+                animalRepository.findSearchCandidates(species, adoptionTypes, null, toAnimalIds(findAnimalsNear(location))));
 
         List<ScoredAnimal> scored = new ArrayList<>();
         for (Animal animal : candidates) {
@@ -275,12 +326,7 @@ public class SemanticSearchService {
         String species = extracted.get("species");
         String location = extracted.get("location");
 
-        Map<String, User> userMap = userRepository.findAll()
-                .stream()
-                .collect(Collectors.toMap(User::getId, u -> u));
-
-        List<Animal> animals = getFilteredAnimals(species, adoptionTypes);
-        List<Animal> candidates = filterByLocation(animals, location, userMap);
+        List<Animal> candidates = animalRepository.findSearchCandidates(species, adoptionTypes, null, toAnimalIds(findAnimalsNear(location)));
 
         List<ScoredAnimal> scored = new ArrayList<>();
         for (Animal animal : candidates) {
@@ -308,13 +354,11 @@ public class SemanticSearchService {
             return new ArrayList<>();
         }
 
-        Animal target = targetAnimal.get();
+        Animal target = animalEmbeddingStore.attach(targetAnimal.get());
 
-        List<Animal> allAnimals;
-        if (adoptionTypes != null && !adoptionTypes.isEmpty()) {
-            allAnimals = getFilteredAnimalsByAdoptionType(adoptionTypes);
-        } else {
-            allAnimals = animalRepository.findAll();
+        List<Animal> allAnimals = animalRepository.findSearchCandidates(null, adoptionTypes, null);
+        if (mode != SearchMode.RDF_ONLY) {
+            animalEmbeddingStore.attach(allAnimals);
         }
 
         List<ScoredAnimal> scored = new ArrayList<>();
@@ -488,7 +532,7 @@ public class SemanticSearchService {
         String normalizedQuery = normalizeText(query);
         String[] queryTerms = normalizedQuery.split("\\s+");
 
-        List<Animal> representatives = animalRepository.findAll().stream()
+        List<Animal> representatives = animalRepository.findSearchCandidates(null, null, null).stream()
                 .filter(animal -> {
                     float matchScore = calculateAnimalQueryMatch(animal, query);
                     return matchScore > 0.5f;
@@ -501,9 +545,7 @@ public class SemanticSearchService {
             String querySpecies = extracted.get("species");
 
             if (querySpecies != null && !querySpecies.isBlank()) {
-                representatives = animalRepository.findAll().stream()
-                        .filter(animal -> animal.getSpecies() != null &&
-                                normalizeText(animal.getSpecies()).equals(normalizeText(querySpecies)))
+                representatives = animalRepository.findSearchCandidates(querySpecies, null, null).stream()
                         .limit(3)
                         .collect(Collectors.toList());
             }
@@ -520,134 +562,31 @@ public class SemanticSearchService {
         return cosineSimilarity(embedding1, embedding2);
     }
 
-    private List<Animal> getFilteredAnimals(String species, List<String> adoptionTypes) {
-        List<Animal> animals;
-
-        if (adoptionTypes != null && !adoptionTypes.isEmpty()) {
-            System.out.println("Filtering by adoption types: " + adoptionTypes);
-
-            animals = animalRepository.findAll();
-            System.out.println("Total animals before adoption type filtering: " + animals.size());
-
-            animals = animals.stream()
-                    .filter(animal -> {
-                        if (animal.getTypesOfAdoptions() == null || animal.getTypesOfAdoptions().isEmpty()) {
-                            return false;
-                        }
-
-                        boolean matches = adoptionTypes.stream()
-                                .anyMatch(requestedType ->
-                                        animal.getTypesOfAdoptions().stream()
-                                                .anyMatch(animalType -> {
-                                                    String normalizedRequested = normalizeText(requestedType);
-                                                    String normalizedAnimal = normalizeText(animalType);
-
-                                                    System.out.println("Comparing: '" + normalizedRequested + "' with '" + normalizedAnimal + "'");
-
-                                                    boolean match = normalizedAnimal.equals(normalizedRequested) ||
-                                                            normalizedAnimal.contains(normalizedRequested) ||
-                                                            normalizedRequested.contains(normalizedAnimal);
-
-                                                    if (match) {
-                                                        System.out.println("MATCH FOUND: '" + normalizedRequested + "' matches '" + normalizedAnimal + "'");
-                                                    }
-
-                                                    return match;
-                                                })
-                                );
-
-                        if (matches) {
-                            System.out.println("Animal " + animal.getName() + " matches with types: " + animal.getTypesOfAdoptions());
-                        } else {
-                            System.out.println("Animal " + animal.getName() + " does NOT match. Requested: " + adoptionTypes + ", Animal has: " + animal.getTypesOfAdoptions());
-                        }
-
-                        return matches;
-                    })
-                    .collect(Collectors.toList());
-
-            System.out.println("Animals after adoption type filtering: " + animals.size());
-        } else {
-            animals = animalRepository.findAll();
-        }
-
-
-        if (species != null && !species.isBlank()) {
-            String normalizedSpecies = species.substring(0, 1).toUpperCase() +
-                    species.substring(1).toLowerCase();
-            System.out.println("Filtering by species: " + normalizedSpecies);
-            animals = animals.stream()
-                    .filter(animal -> normalizedSpecies.equals(animal.getSpecies()))
-                    .collect(Collectors.toList());
-        }
-
-        System.out.println("Total animals after filtering: " + animals.size());
-        return animals;
-    }
-
-    private List<Animal> getFilteredAnimalsByAdoptionType(List<String> adoptionTypes) {
-        if (adoptionTypes == null || adoptionTypes.isEmpty()) {
-            return animalRepository.findAll();
-        }
-
-        List<Animal> animals = animalRepository.findAll();
-
-        return animals.stream()
-                .filter(animal -> {
-                    if (animal.getTypesOfAdoptions() == null || animal.getTypesOfAdoptions().isEmpty()) {
-                        return false;
-                    }
-
-                    return adoptionTypes.stream()
-                            .anyMatch(requestedType ->
-                                    animal.getTypesOfAdoptions().stream()
-                                            .anyMatch(animalType -> {
-                                                // Normalize both strings for comparison
-                                                String normalizedRequested = normalizeText(requestedType);
-                                                String normalizedAnimal = normalizeText(animalType);
-
-                                                // Check for exact match or contains match
-                                                return normalizedAnimal.equals(normalizedRequested) ||
-                                                        normalizedAnimal.contains(normalizedRequested) ||
-                                                        normalizedRequested.contains(normalizedAnimal);
-                                            })
-                            );
-                })
-                .collect(Collectors.toList());
-    }
-
-    private List<Animal> filterByLocation(List<Animal> animals, String location, Map<String, User> userMap) {
+    private RoaringBitmap findAnimalsNear(String location) {
         if (location == null || location.isBlank()) {
-            return animals;
+            return null;
         }
 
         String normalizedLocation = rdfGraphService.normalizeLocation(location);
 
-        if (!CITY_COORDINATES.containsKey(normalizedLocation)) {
-            System.out.println("[INFO] No coordinates found for location: " + normalizedLocation + ". Skipping location filter.");
-            return animals;
+        double[] targetCoords = cityLocator.coordinatesOf(normalizedLocation);
+        if (targetCoords == null) {
+            logger.info("No coordinates found for location {}, skipping location filter", normalizedLocation);
+            return null;
         }
 
-        double[] targetCoords = CITY_COORDINATES.get(normalizedLocation);
-        double targetLat = targetCoords[0];
-        double targetLon = targetCoords[1];
-
-        double maxDistanceKm = 20.0;
-
-        List<Animal> candidates = new ArrayList<>();
-        for (Animal animal : animals) {
-            User user = userMap.get(animal.getUserId());
-            if (user == null || user.getLocation() == null) continue;
-
-            double lon = user.getLocation().getX();
-            double lat = user.getLocation().getY();
+        return animalSpatialIndex.withinRadius(targetCoords[0], targetCoords[1], CityLocator.CITY_RADIUS_KM);
+    }
 
-            double distance = haversine(lat, lon, targetLat, targetLon);
-            if (distance <= maxDistanceKm) {
-                candidates.add(animal);
-            }
+    private List<String> toAnimalIds(RoaringBitmap ordinals) {
+        if (ordinals == null) {
+            return null;
+        }
+        List<String> animalIds = new ArrayList<>(ordinals.getCardinality());
+        for (int ordinal : ordinals) {
+            animalIds.add(animalOrdinals.idOf(ordinal));
         }
-        return candidates;
+        return animalIds;
     }
 
     private String normalizeText(String text) {
@@ -659,18 +598,6 @@ public class SemanticSearchService {
         return normalized;
     }
 
-    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
-        double R = 6371;
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double a =
-                Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                        Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                                Math.sin(dLon / 2) * Math.sin(dLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
-    }
-
 
     private float cosineSimilarity(List<Float> v1, List<Float> v2) {
         if (v1.size() != v2.size()) {
@@ -692,10 +619,9 @@ public class SemanticSearchService {
     }
 
     public SearchStats getSearchStats() {
-        long totalAnimals = animalRepository.count();
-        long animalsWithTextEmbeddings = animalRepository.findAll().stream()
-                .filter(a -> a.getEmbeddings() != null && !a.getEmbeddings().isEmpty())
-                .count();
+        StatsRollup totals = statsRollupService.totals();
+        long totalAnimals = totals != null ? totals.getAnimalsAdded() - totals.getAnimalsRemoved() : animalRepository.count();
+        long animalsWithTextEmbeddings = totals != null ? totals.getAnimalsWithEmbeddings() : animalEmbeddingStore.count();
         long animalsWithRdfEmbeddings = rdf2VecService.getStoredEmbeddingsCount();
 
         return new SearchStats(totalAnimals, animalsWithTextEmbeddings, animalsWithRdfEmbeddings);
@@ -708,6 +634,19 @@ public class SemanticSearchService {
         HYBRID
     }
 
+    private static class Ranking {
+        final List<ScoredAnimal> scored;
+        // toate animalele care trec de filtrele interogării, înainte de fațetele selectate
+        final RoaringBitmap candidates;
+        final RoaringBitmap selected;
+
+        Ranking(List<ScoredAnimal> scored, RoaringBitmap candidates, RoaringBitmap selected) {
+            this.scored = scored;
+            this.candidates = candidates;
+            this.selected = selected;
+        }
+    }
+
     private static class ScoredAnimal {
         Animal animal;
         float similarity;
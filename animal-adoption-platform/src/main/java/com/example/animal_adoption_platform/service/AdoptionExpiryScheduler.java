@@ -0,0 +1,129 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.event.AdoptionStatusChangedEvent;
+import com.example.animal_adoption_platform.model.Adoption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Expiră automat adopțiile temporare (foster, la distanță) la sfârșitul perioadei.
+ * <p>
+ * Interogarea periodică citește doar adopțiile scadente prin indexul pe {@code dueAt}. Fiecare
+ * adopție este revendicată întâi cu un lease (findAndModify), astfel încât mai multe instanțe ale
+ * aplicației să nu o proceseze de două ori; un lease expirat poate fi preluat de altă instanță.
+ * După tranziție {@code dueAt} este scos, deci o adopție expiră o singură dată. Adopțiile
+ * scadente cât timp aplicația era oprită sunt prinse la prima rulare.
+ */
+@Service
+public class AdoptionExpiryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdoptionExpiryScheduler.class);
+
+    public static final String EXPIRED_STATUS = "expired";
+    static final List<String> FINAL_STATUSES = List.of(EXPIRED_STATUS, "completed", "declined");
+    private static final int BATCH_SIZE = 100;
+    private static final long LEASE_MINUTES = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public AdoptionExpiryScheduler(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(fixedDelayString = "${adoptions.expiry.poll-interval-ms:60000}",
+            initialDelayString = "${adoptions.expiry.initial-delay-ms:10000}")
+    public void expireDueAdoptions() {
+        try {
+            int expired = 0;
+            Adoption claimed;
+            while (expired < BATCH_SIZE && (claimed = claimNextDue(LocalDateTime.now())) != null) {
+                if (expire(claimed)) {
+                    expired++;
+                }
+            }
+            if (expired > 0) {
+                logger.info("Expired {} adoptions", expired);
+            }
+        } catch (Exception e) {
+            logger.warn("Adoption expiry run failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Completează {@code dueAt} pentru adopțiile create înainte ca acesta să fie salvat și îl scoate
+     * de la adopțiile ajunse într-un status final înainte ca schimbarea de status să o facă.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillDueDates() {
+        try {
+            mongoTemplate.updateMulti(new Query(Criteria.where("dueAt").exists(true).and("status").in(FINAL_STATUSES)),
+                    new Update().unset("dueAt"), Adoption.class);
+
+            Query query = new Query(Criteria.where("dueAt").exists(false).and("period").gt(0)
+                    .and("status").nin(FINAL_STATUSES));
+            query.fields().include("adoptionDate", "period", "type");
+            for (Adoption adoption : mongoTemplate.find(query, Adoption.class)) {
+                LocalDateTime dueAt = AdoptionService.computeDueAt(adoption);
+                if (dueAt != null) {
+                    mongoTemplate.updateFirst(new Query(Criteria.where("id").is(adoption.getId())),
+                            new Update().set("dueAt", dueAt), Adoption.class);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Could not backfill adoption due dates: {}", e.getMessage());
+        }
+    }
+
+    private Adoption claimNextDue(LocalDateTime now) {
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("dueAt").lte(now),
+                Criteria.where("status").nin(FINAL_STATUSES),
+                new Criteria().orOperator(
+                        Criteria.where("leaseUntil").exists(false),
+                        Criteria.where("leaseUntil").is(null),
+                        Criteria.where("leaseUntil").lt(now))));
+        query.with(Sort.by(Sort.Direction.ASC, "dueAt"));
+        Update lease = new Update().set("leaseOwner", instanceId).set("leaseUntil", now.plusMinutes(LEASE_MINUTES));
+        return mongoTemplate.findAndModify(query, lease, FindAndModifyOptions.options().returnNew(true), Adoption.class);
+    }
+
+    /**
+     * Tranziția reușește doar dacă lease-ul este încă al acestei instanțe.
+     */
+    private boolean expire(Adoption adoption) {
+        Query query = new Query(Criteria.where("id").is(adoption.getId()).and("leaseOwner").is(instanceId));
+        Update update = new Update()
+                .set("status", EXPIRED_STATUS)
+                .unset("dueAt")
+                .unset("leaseOwner")
+                .unset("leaseUntil")
+                .inc("version", 1);
+        if (mongoTemplate.updateFirst(query, update, Adoption.class).getModifiedCount() == 0) {
+            return false;
+        }
+        String previousStatus = adoption.getStatus();
+        adoption.setStatus(EXPIRED_STATUS);
+        adoption.setDueAt(null);
+        adoption.setVersion(adoption.getVersion() + 1);
+        eventPublisher.publishEvent(new AdoptionStatusChangedEvent(adoption, previousStatus));
+        return true;
+    }
+}
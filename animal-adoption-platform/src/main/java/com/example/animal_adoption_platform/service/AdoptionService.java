@@ -1,63 +1,204 @@
 package com.example.animal_adoption_platform.service;
 
 import com.example.animal_adoption_platform.dto.AdoptionDTO;
+import com.example.animal_adoption_platform.dto.AdoptionDashboardDTO;
+import com.example.animal_adoption_platform.dto.AdoptionPageDTO;
+import com.example.animal_adoption_platform.event.AdoptionDeletedEvent;
+import com.example.animal_adoption_platform.event.AdoptionStatusChangedEvent;
 import com.example.animal_adoption_platform.model.Adoption;
 import com.example.animal_adoption_platform.model.Animal;
 import com.example.animal_adoption_platform.repository.AdoptionRepository;
 import com.example.animal_adoption_platform.repository.AnimalRepository;
+import com.example.animal_adoption_platform.repository.PartialUpdater;
+import com.example.animal_adoption_platform.model.SlotReservation;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
 public class AdoptionService {
     private AdoptionRepository adoptionRepository;
     private AnimalService animalService;
+    private ApplicationEventPublisher eventPublisher;
+    private PartialUpdater partialUpdater;
+    private SlotBookingService slotBookingService;
 
-    public AdoptionService(AdoptionRepository adoptionRepository, AnimalRepository animalRepository, AnimalService animalService) {
+    private static final Map<String, Function<Object, Object>> ADOPTION_FIELDS = Map.of(
+            "status", PartialUpdater.TEXT,
+            "permanentClaim", PartialUpdater.TEXT,
+            "dueAt", value -> value);
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // după aceste statusuri animalul poate primi o nouă cerere de adopție permanentă
+    private static final List<String> RELEASED_STATUSES = List.of("declined", AdoptionExpiryScheduler.EXPIRED_STATUS);
+
+    public AdoptionService(AdoptionRepository adoptionRepository, AnimalRepository animalRepository, AnimalService animalService,
+                           ApplicationEventPublisher eventPublisher, PartialUpdater partialUpdater,
+                           SlotBookingService slotBookingService) {
         this.adoptionRepository = adoptionRepository;
         this.animalRepository = animalRepository;
         this.animalService = animalService;
+        this.eventPublisher = eventPublisher;
+        this.partialUpdater = partialUpdater;
+        this.slotBookingService = slotBookingService;
     }
 
     private AnimalRepository animalRepository;
 
-    public void scheduleAnAdoption(AdoptionDTO adoptionDTO) {
+    /**
+     * Programează adopția. Adopțiile permanente cu dată cerută primesc un interval de vizită,
+     * rezervat atomic (sau este confirmată rezervarea temporară a adoptatorului); fostering-ul și
+     * adopția la distanță nu au vizită. O a doua adopție permanentă în curs pentru același animal
+     * este respinsă de indexul unic pe {@code permanentClaim}.
+     *
+     * @throws IllegalStateException dacă intervalul este ocupat sau animalul are deja o adopție permanentă în curs
+     */
+    public Adoption scheduleAnAdoption(AdoptionDTO adoptionDTO) {
+        SlotReservation reservation = null;
+        LocalDateTime adoptionDate = adoptionDTO.getScheduledDate();
+        if (adoptionDate != null && isPermanent(adoptionDTO.getType())) {
+            reservation = slotBookingService.reserveForAdoption(
+                    adoptionDTO.getAnimalId(), adoptionDTO.getAdopterId(), adoptionDate);
+            adoptionDate = reservation.getSlotStart();
+        }
+
         Adoption adoption = new Adoption();
         adoption.setUserId(adoptionDTO.getUserId());
         adoption.setAnimalId(adoptionDTO.getAnimalId());
         adoption.setAdopterId(adoptionDTO.getAdopterId());
-        adoption.setAdoptionDate(adoptionDTO.getScheduledDate());
+        adoption.setAdoptionDate(adoptionDate);
         adoption.setStatus(adoptionDTO.getStatus());
         adoption.setType(adoptionDTO.getType());
         adoption.setPeriod(adoptionDTO.getPeriod());
-        adoptionRepository.save(adoption);
+        adoption.setDueAt(computeDueAt(adoption));
+        if (reservation != null) {
+            adoption.setSlotReservationId(reservation.getId());
+        }
+        if (isPermanent(adoption.getType())) {
+            adoption.setPermanentClaim(adoption.getAnimalId());
+        }
+        try {
+            Adoption saved = adoptionRepository.insert(adoption);
+            eventPublisher.publishEvent(new AdoptionStatusChangedEvent(saved, null));
+            return saved;
+        } catch (DuplicateKeyException e) {
+            if (reservation != null) {
+                slotBookingService.release(reservation.getId(), reservation.getAdopterId());
+            }
+            throw new IllegalStateException("Animal already has a permanent adoption in progress: " + adoption.getAnimalId());
+        }
     }
 
     public void changeStatus(String id, String status){
 
-        Adoption adoption = adoptionRepository.findById(id).get();
-        adoption.setStatus(status);
-        adoptionRepository.save(adoption);
+        changeStatus(id, status, null);
+    }
+
+    /**
+     * Schimbă statusul într-un singur findAndModify care întoarce și statusul anterior. Cu
+     * {@code expectedVersion} dat, schimbarea este respinsă dacă adopția a fost modificată între timp.
+     * O adopție refuzată sau expirată eliberează intervalul de vizită, iar una ajunsă într-un status
+     * final își pierde {@code dueAt}.
+     */
+    public Adoption changeStatus(String id, String status, Long expectedVersion) {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("status", status);
+        boolean released = status != null && RELEASED_STATUSES.contains(status.toLowerCase());
+        if (released) {
+            changes.put("permanentClaim", null);
+        }
+        // o adopție finalizată nu mai expiră; fără dueAt iese din indexul citit de AdoptionExpiryScheduler
+        if (status != null && AdoptionExpiryScheduler.FINAL_STATUSES.contains(status.toLowerCase())) {
+            changes.put("dueAt", null);
+        }
+        Adoption previous = partialUpdater.patchAndGet(Adoption.class, id, changes, ADOPTION_FIELDS, expectedVersion, false);
+        if (previous == null) {
+            throw new IllegalArgumentException("Adoption not found: " + id);
+        }
+        if (released) {
+            releaseSlot(previous);
+        }
+        String previousStatus = previous.getStatus();
+        previous.setStatus(status);
+        previous.setVersion(previous.getVersion() + 1);
+        eventPublisher.publishEvent(new AdoptionStatusChangedEvent(previous, previousStatus));
+        return previous;
+    }
+
+    /**
+     * Adopțiile care corespund filtrelor date, paginate după cursor (id-ul ultimei adopții primite).
+     */
+    public AdoptionPageDTO findAdoptions(String userId, String adopterId, String animalId, String status,
+                                         String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Adoption> adoptions = adoptionRepository.findPage(userId, adopterId, animalId, status, cursor, pageSize + 1);
+        String nextCursor = null;
+        if (adoptions.size() > pageSize) {
+            adoptions = new ArrayList<>(adoptions.subList(0, pageSize));
+            nextCursor = adoptions.get(pageSize - 1).getId();
+        }
+        return new AdoptionPageDTO(adoptions, nextCursor);
+    }
+
+    public AdoptionDashboardDTO getDashboard(String userId, String adopterId) {
+        Map<String, Long> counts = adoptionRepository.countByStatus(userId, adopterId);
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        return new AdoptionDashboardDTO(counts, total);
     }
 
     public void completeAdoption(AdoptionDTO adoptionDTO) {
         Adoption adoption = adoptionRepository.findById(adoptionDTO.getAdopterId()).get();
+        Animal adopted = adoption.getAnimalId() != null ? animalRepository.findAnimalById(adoption.getAnimalId()) : null;
+        String species = adopted != null ? adopted.getSpecies() : null;
         if(adoption.getStatus().equalsIgnoreCase("completed") && adoption.getType().equalsIgnoreCase("permanentă")){
             Animal animal = animalRepository.findAnimalById(adoptionDTO.getAnimalId());
             animalService.deleteAnimal(animal.getId());
 
         }
         else{
-            LocalDateTime endDate = adoption.getAdoptionDate().plusMonths(adoption.getPeriod());
-            LocalDateTime currentDate = LocalDateTime.now();
-            if(currentDate.minusMonths(endDate.getMonthValue()).equals(adoption.getPeriod())){
+            LocalDateTime endDate = computeDueAt(adoption);
+            if(endDate != null && !LocalDateTime.now().isBefore(endDate)){
                 Animal animal = animalRepository.findAnimalById(adoptionDTO.getAnimalId());
                 animalService.deleteAnimal(animal.getId());
             }
         }
 
+            releaseSlot(adoption);
             adoptionRepository.delete(adoption);
+            eventPublisher.publishEvent(new AdoptionDeletedEvent(adoption, species));
+    }
+
+    private void releaseSlot(Adoption adoption) {
+        if (adoption.getSlotReservationId() != null) {
+            slotBookingService.release(adoption.getSlotReservationId(), adoption.getAdopterId());
+        }
+    }
+
+    /**
+     * Data la care expiră o adopție temporară (data programată plus perioada în luni);
+     * null pentru adopțiile permanente sau fără perioadă.
+     */
+    public static LocalDateTime computeDueAt(Adoption adoption) {
+        if (adoption.getAdoptionDate() == null || adoption.getPeriod() <= 0) {
+            return null;
+        }
+        if (isPermanent(adoption.getType())) {
+            return null;
+        }
+        return adoption.getAdoptionDate().plusMonths(adoption.getPeriod());
+    }
+
+    // interfața trimite "adoptie permanenta", "fostering" și "distant_adoption"
+    private static boolean isPermanent(String type) {
+        return type != null && type.toLowerCase().contains("permanent");
     }
 
 }
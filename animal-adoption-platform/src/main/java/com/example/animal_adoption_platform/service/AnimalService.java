@@ -1,26 +1,82 @@
 package com.example.animal_adoption_platform.service;
 
 import com.example.animal_adoption_platform.dto.AnimalDTO;
+import com.example.animal_adoption_platform.dto.AnimalSummaryDTO;
+import com.example.animal_adoption_platform.dto.NearbyAnimalDTO;
+import com.example.animal_adoption_platform.dto.OwnerSummaryDTO;
+import com.example.animal_adoption_platform.event.AnimalCreatedEvent;
+import com.example.animal_adoption_platform.event.AnimalDeletedEvent;
+import com.example.animal_adoption_platform.event.AnimalSavedEvent;
+import com.example.animal_adoption_platform.event.UserLocationChangedEvent;
 import com.example.animal_adoption_platform.model.Animal;
 import com.example.animal_adoption_platform.model.User;
 import com.example.animal_adoption_platform.repository.AnimalRepository;
+import com.example.animal_adoption_platform.repository.PartialUpdater;
 import com.example.animal_adoption_platform.repository.UserRepository;
-import com.mongodb.client.model.geojson.Point;
+import com.example.animal_adoption_platform.semanticSearch.AnimalEmbeddingStore;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Service
 public class AnimalService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AnimalService.class);
+
     private AnimalRepository animalRepository;
     private UserRepository userRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private MongoTemplate mongoTemplate;
+    private ImageStorageService imageStorageService;
+    private AnimalEmbeddingStore animalEmbeddingStore;
+
+    private PartialUpdater partialUpdater;
+
+    private static final int MAX_NEARBY_PAGE_SIZE = 100;
+    private static final Map<String, Function<Object, Object>> ANIMAL_FIELDS = Map.of(
+            "name", PartialUpdater.TEXT,
+            "species", PartialUpdater.TEXT,
+            "description", PartialUpdater.TEXT,
+            "typesOfAdoptions", PartialUpdater.TEXT_LIST);
 
-    public AnimalService(AnimalRepository animalRepository, UserRepository userRepository) {
+    public AnimalService(AnimalRepository animalRepository, UserRepository userRepository,
+                         ApplicationEventPublisher eventPublisher, MongoTemplate mongoTemplate,
+                         ImageStorageService imageStorageService, AnimalEmbeddingStore animalEmbeddingStore,
+                         PartialUpdater partialUpdater) {
         this.animalRepository = animalRepository;
         this.userRepository  = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.mongoTemplate = mongoTemplate;
+        this.imageStorageService = imageStorageService;
+        this.animalEmbeddingStore = animalEmbeddingStore;
+        this.partialUpdater = partialUpdater;
     }
 
     public void addAnimal(AnimalDTO animal) {
@@ -29,55 +85,264 @@ public class AnimalService {
         animal1.setSpecies(animal.getSpecies());
         animal1.setDescription(animal.getDescription());
         animal1.setUserId(animal.getUserId());
-        animal1.setImages(animal.getImages());
+        animal1.setImages(storeImages(animal.getImages()));
         animal1.setTypesOfAdoptions(animal.getTypesOfAdoption());
         animal1.setEmbeddings(animal.getEmbeddings());
-        animalRepository.save(animal1);
+        if (animal.getUserId() != null) {
+            userRepository.findById(animal.getUserId()).ifPresent(owner -> animal1.setLocation(owner.getLocation()));
+        }
+        Animal saved = animalRepository.save(animal1);
+        if (animal.getEmbeddings() != null) {
+            animalEmbeddingStore.save(saved.getId(), animal.getEmbeddings());
+        }
+        eventPublisher.publishEvent(new AnimalSavedEvent(saved));
+        eventPublisher.publishEvent(new AnimalCreatedEvent(saved));
     }
 
     public void deleteAnimal(String id) {
-        animalRepository.delete(animalRepository.findAnimalById(id));
+        Animal animal = animalRepository.findAnimalById(id);
+        animalRepository.delete(animal);
+        animalEmbeddingStore.delete(id);
+        eventPublisher.publishEvent(new AnimalDeletedEvent(id, animal));
     }
 //
     public Animal updateAnimal(String id, String modifiedField, String modifiedValue){
-        Animal animal = animalRepository.findAnimalById(id);
+        return updateAnimal(id, Collections.singletonMap(modifiedField, modifiedValue), null);
+    }
 
-        switch (modifiedField) {
-            case "name":
-                animal.setName(modifiedValue);
-                break;
-            case "species":
-                animal.setSpecies(modifiedValue);
-                break;
-            case "description":
-                animal.setDescription(modifiedValue);
-                break;
-            case "typesOfAdoptions":
-                animal.setTypesOfAdoptions(List.of(modifiedField));
-            default:
-                throw new IllegalArgumentException("Invalid field: " + modifiedField);
+    /**
+     * Modifică unul sau mai multe câmpuri printr-un singur $set. Cu {@code expectedVersion} dat,
+     * modificarea este respinsă dacă animalul a fost schimbat între timp.
+     */
+    public Animal updateAnimal(String id, Map<String, ?> changes, Long expectedVersion) {
+        Animal updated = partialUpdater.patchAndGet(Animal.class, id, changes, ANIMAL_FIELDS,
+                expectedVersion, true, "images");
+        if (updated == null) {
+            throw new IllegalArgumentException("Animal not found: " + id);
         }
-        return animalRepository.save(animal);
+        eventPublisher.publishEvent(new AnimalSavedEvent(updated));
+        return updated;
     }
 
     public Animal editEmbeddings(String id, List<Float> embeddings){
         Animal animal = animalRepository.findAnimalById(id);
+        animalEmbeddingStore.save(id, embeddings);
         animal.setEmbeddings(embeddings);
-        return animalRepository.save(animal);
+        eventPublisher.publishEvent(new AnimalSavedEvent(animal));
+        return animal;
     }
 
-    public List<Animal> getAnimals(){
-        return animalRepository.findAll();
+    public List<AnimalSummaryDTO> getAnimals(){
+        return loadSummaries(new Criteria());
     }
 
-    public List<Animal> getAnimalsByUserId(String userId){
-        return animalRepository.findByUserId(userId);
+    public List<AnimalSummaryDTO> getAnimalsByUserId(String userId){
+        return loadSummaries(Criteria.where("userId").is(userId));
+    }
+
+    /**
+     * Rezumatele animalelor cu id-urile date, în ordinea primită (de exemplu ordinea din căutare).
+     */
+    public List<AnimalSummaryDTO> getAnimalSummariesByIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, AnimalSummaryDTO> byId = new HashMap<>();
+        for (AnimalSummaryDTO summary : loadSummaries(Criteria.where("id").in(ids))) {
+            byId.put(summary.getId(), summary);
+        }
+        List<AnimalSummaryDTO> ordered = new ArrayList<>();
+        for (String id : ids) {
+            AnimalSummaryDTO summary = byId.get(id);
+            if (summary != null) ordered.add(summary);
+        }
+        return ordered;
     }
 
     public Animal getAnimalInfoById(String id){
         return animalRepository.findAnimalById(id);
     }
 
+    /**
+     * Animalele aflate pe o rază dată, ordonate după distanță, cu datele proprietarului incluse,
+     * într-o singură interogare $geoNear pe locația denormalizată a animalului.
+     */
+    public List<NearbyAnimalDTO> findAnimalsNear(double latitude, double longitude, double radiusKm, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_NEARBY_PAGE_SIZE));
+        NearQuery nearQuery = NearQuery.near(new Point(longitude, latitude))
+                .spherical(true)
+                .maxDistance(new Distance(radiusKm, Metrics.KILOMETERS));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.geoNear(nearQuery, "distance"),
+                Aggregation.skip((long) Math.max(0, page) * pageSize),
+                Aggregation.limit(pageSize),
+                Aggregation.project("name", "species", "typesOfAdoptions", "userId", "location", "distance")
+                        .and(ArrayOperators.ArrayElemAt.arrayOf("images").elementAt(0)).as("thumbnailId")
+        );
+        List<Document> rows = mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Animal.class), Document.class)
+                .getMappedResults();
+
+        Map<String, OwnerSummaryDTO> owners = loadOwnerSummaries(rows.stream()
+                .map(row -> row.getString("userId"))
+                .filter(id -> id != null)
+                .collect(Collectors.toSet()));
+
+        List<NearbyAnimalDTO> result = new ArrayList<>();
+        for (Document row : rows) {
+            NearbyAnimalDTO card = new NearbyAnimalDTO();
+            card.setId(String.valueOf(row.get("_id")));
+            card.setName(row.getString("name"));
+            card.setSpecies(row.getString("species"));
+            card.setTypesOfAdoptions(row.getList("typesOfAdoptions", String.class));
+            String thumbnailId = row.getString("thumbnailId");
+            card.setThumbnailUrl(thumbnailId != null ? imageUrl(thumbnailId, true) : null);
+            card.setUserId(row.getString("userId"));
+            Document location = row.get("location", Document.class);
+            if (location != null) {
+                List<Double> coordinates = location.getList("coordinates", Double.class);
+                card.setLongitude(coordinates.get(0));
+                card.setLatitude(coordinates.get(1));
+            }
+            card.setDistanceKm(((Number) row.get("distance")).doubleValue());
+            OwnerSummaryDTO owner = owners.get(card.getUserId());
+            if (owner != null) {
+                card.setOwnerName(owner.getName());
+                card.setOwnerType(owner.getType());
+                card.setOwnerContact(owner.getContact());
+            }
+            result.add(card);
+        }
+        return result;
+    }
+
+    private List<AnimalSummaryDTO> loadSummaries(Criteria criteria) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.project("name", "species", "description", "typesOfAdoptions", "userId", "images")
+        );
+        List<Document> rows = mongoTemplate.aggregate(aggregation, Animal.class, Document.class).getMappedResults();
+
+        Map<String, OwnerSummaryDTO> owners = loadOwnerSummaries(rows.stream()
+                .map(row -> row.getString("userId"))
+                .filter(id -> id != null)
+                .collect(Collectors.toSet()));
+
+        List<AnimalSummaryDTO> result = new ArrayList<>();
+        for (Document row : rows) {
+            AnimalSummaryDTO summary = new AnimalSummaryDTO();
+            summary.setId(String.valueOf(row.get("_id")));
+            summary.setName(row.getString("name"));
+            summary.setSpecies(row.getString("species"));
+            summary.setDescription(row.getString("description"));
+            summary.setTypesOfAdoptions(row.getList("typesOfAdoptions", String.class));
+            summary.setUserId(row.getString("userId"));
+            List<String> imageIds = row.getList("images", String.class, new ArrayList<>());
+            summary.setImages(imageIds.stream().map(imageId -> imageUrl(imageId, false)).collect(Collectors.toList()));
+            summary.setThumbnailUrl(imageIds.isEmpty() ? null : imageUrl(imageIds.get(0), true));
+            summary.setOwner(owners.get(summary.getUserId()));
+            result.add(summary);
+        }
+        return result;
+    }
+
+    private Map<String, OwnerSummaryDTO> loadOwnerSummaries(Collection<String> ownerIds) {
+        Map<String, OwnerSummaryDTO> owners = new HashMap<>();
+        if (ownerIds.isEmpty()) {
+            return owners;
+        }
+        Query query = new Query(Criteria.where("id").in(ownerIds));
+        query.fields().include("name", "type", "contact", "location");
+        for (User user : mongoTemplate.find(query, User.class)) {
+            OwnerSummaryDTO owner = new OwnerSummaryDTO();
+            owner.setId(user.getId());
+            owner.setName(user.getName());
+            owner.setType(user.getType());
+            owner.setContact(user.getContact());
+            if (user.getLocation() != null) {
+                owner.setLatitude(user.getLocation().getY());
+                owner.setLongitude(user.getLocation().getX());
+            }
+            owners.put(user.getId(), owner);
+        }
+        return owners;
+    }
+
+    private List<String> storeImages(List<String> images) {
+        if (images == null) {
+            return new ArrayList<>();
+        }
+        return images.stream().map(imageStorageService::store).collect(Collectors.toList());
+    }
+
+    private String imageUrl(String imageId, boolean thumbnail) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path(thumbnail ? "/images/{imageId}/thumbnail" : "/images/{imageId}")
+                .buildAndExpand(imageId)
+                .toUriString();
+    }
+
+    @EventListener
+    public void onOwnerLocationChanged(UserLocationChangedEvent event) {
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("userId").is(event.getUserId())),
+                new Update().set("location", event.getLocation()),
+                Animal.class);
+    }
+
+    /**
+     * Completează locația animalelor create înainte ca aceasta să fie denormalizată.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void syncLocationsFromOwners() {
+        try {
+            Query ownersQuery = new Query(Criteria.where("location").exists(true));
+            ownersQuery.fields().include("location");
+            for (User owner : mongoTemplate.find(ownersQuery, User.class)) {
+                mongoTemplate.updateMulti(
+                        new Query(Criteria.where("userId").is(owner.getId()).and("location").exists(false)),
+                        new Update().set("location", owner.getLocation()),
+                        Animal.class);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not sync animal locations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Mută în GridFS imaginile base64 salvate direct în documentele animalelor mai vechi.
+     * Documentele deja migrate conțin doar id-uri și nu sunt selectate.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateInlineImages() {
+        try {
+            Query query = new Query(Criteria.where("images").regex("^(data:|[\\s\\S]{65})"));
+            query.fields().include("images");
+            int migrated = 0;
+            try (Stream<Animal> stream = mongoTemplate.stream(query, Animal.class)) {
+                Iterator<Animal> animals = stream.iterator();
+                while (animals.hasNext()) {
+                    Animal animal = animals.next();
+                    try {
+                        mongoTemplate.updateFirst(
+                                new Query(Criteria.where("id").is(animal.getId())),
+                                new Update().set("images", storeImages(animal.getImages())),
+                                Animal.class);
+                        migrated++;
+                    } catch (IllegalArgumentException e) {
+                        // o imagine veche într-un format neacceptat nu oprește migrarea celorlalte
+                        logger.warn("Could not migrate images of animal {}: {}", animal.getId(), e.getMessage());
+                    }
+                }
+            }
+            if (migrated > 0) {
+                logger.info("Moved inline images of {} animals to GridFS", migrated);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not migrate inline animal images: {}", e.getMessage());
+        }
+    }
+
 
 
 }
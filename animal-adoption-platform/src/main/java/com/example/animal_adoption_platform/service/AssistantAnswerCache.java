@@ -0,0 +1,189 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.semanticSearch.EmbeddingService;
+import com.example.animal_adoption_platform.semanticSearch.SearchPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache semantic pentru răspunsurile asistentului virtual. Întrebarea este transformată în
+ * embedding și comparată cu întrebările deja răspunse; peste pragul de similaritate se întoarce
+ * răspunsul păstrat, fără un nou apel la model. Intrările expiră după {@code ttl}, iar la
+ * depășirea numărului maxim este scoasă cea folosită cel mai demult.
+ */
+@Service
+public class AssistantAnswerCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssistantAnswerCache.class);
+
+    private final EmbeddingService embeddingService;
+    private final float similarityThreshold;
+    private final int maxEntries;
+    private final Duration ttl;
+
+    // în ordinea accesului, deci primul element este cel mai puțin recent folosit
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public AssistantAnswerCache(EmbeddingService embeddingService,
+                                @Value("${assistant.cache.similarity-threshold:0.92}") float similarityThreshold,
+                                @Value("${assistant.cache.max-entries:1000}") int maxEntries,
+                                @Value("${assistant.cache.ttl-hours:24}") long ttlHours) {
+        this.embeddingService = embeddingService;
+        this.similarityThreshold = similarityThreshold;
+        this.maxEntries = maxEntries;
+        this.ttl = Duration.ofHours(ttlHours);
+    }
+
+    /**
+     * Caută un răspuns pentru întrebare. O întrebare identică după normalizare este găsită fără
+     * embedding; altfel embedding-ul calculat aici este păstrat în rezultat pentru {@link #put}.
+     */
+    public Lookup lookup(String prompt) {
+        String normalized = normalize(prompt);
+        Instant now = Instant.now();
+        synchronized (this) {
+            Entry exact = entries.get(normalized);
+            if (exact != null && !exact.isExpired(now, ttl)) {
+                hits.incrementAndGet();
+                return new Lookup(normalized, null, exact.answer);
+            }
+        }
+
+        float[] vector;
+        try {
+            vector = SearchPartition.toUnitVector(embeddingService.embedTexts(List.of(normalized)).get(0));
+        } catch (RuntimeException e) {
+            // fără embedding întrebarea merge direct la model
+            logger.warn("Could not embed assistant prompt: {}", e.getMessage());
+            misses.incrementAndGet();
+            return new Lookup(normalized, null, null);
+        }
+
+        synchronized (this) {
+            Entry best = null;
+            float bestScore = similarityThreshold;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.isExpired(now, ttl)) {
+                    iterator.remove();
+                    continue;
+                }
+                if (entry.vector == null || vector == null || entry.vector.length != vector.length) continue;
+                float score = dot(entry.vector, vector);
+                if (score >= bestScore) {
+                    bestScore = score;
+                    best = entry;
+                }
+            }
+            if (best != null) {
+                entries.get(best.prompt); // actualizează ordinea LRU
+                hits.incrementAndGet();
+                return new Lookup(normalized, vector, best.answer);
+            }
+        }
+        misses.incrementAndGet();
+        return new Lookup(normalized, vector, null);
+    }
+
+    public synchronized void put(Lookup lookup, String answer) {
+        if (answer == null || answer.isBlank()) {
+            return;
+        }
+        entries.put(lookup.prompt, new Entry(lookup.prompt, lookup.vector, answer, Instant.now()));
+        while (entries.size() > maxEntries) {
+            Iterator<String> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Scoate răspunsurile ale căror întrebări conțin textul dat, sau toate dacă textul lipsește.
+     * Întoarce numărul de intrări scoase.
+     */
+    public synchronized int invalidate(String containing) {
+        int before = entries.size();
+        if (containing == null || containing.isBlank()) {
+            entries.clear();
+        } else {
+            String needle = normalize(containing);
+            entries.keySet().removeIf(prompt -> prompt.contains(needle));
+        }
+        return before - entries.size();
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("similarityThreshold", similarityThreshold);
+        return stats;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
+                .toLowerCase()
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    public static class Lookup {
+        final String prompt;
+        final float[] vector;
+        final String answer;
+
+        Lookup(String prompt, float[] vector, String answer) {
+            this.prompt = prompt;
+            this.vector = vector;
+            this.answer = answer;
+        }
+
+        public boolean isHit() {
+            return answer != null;
+        }
+
+        public String getAnswer() {
+            return answer;
+        }
+    }
+
+    private static class Entry {
+        final String prompt;
+        final float[] vector;
+        final String answer;
+        final Instant createdAt;
+
+        Entry(String prompt, float[] vector, String answer, Instant createdAt) {
+            this.prompt = prompt;
+            this.vector = vector;
+            this.answer = answer;
+            this.createdAt = createdAt;
+        }
+
+        boolean isExpired(Instant now, Duration ttl) {
+            return createdAt.plus(ttl).isBefore(now);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.animal_adoption_platform.service;
+
+import com.azure.ai.inference.ChatCompletionsAsyncClient;
+import com.azure.ai.inference.ChatCompletionsClient;
+import com.azure.ai.inference.ChatCompletionsClientBuilder;
+import com.azure.ai.inference.models.ChatCompletionsOptions;
+import com.azure.ai.inference.models.ChatRequestAssistantMessage;
+import com.azure.ai.inference.models.ChatRequestMessage;
+import com.azure.ai.inference.models.ChatRequestSystemMessage;
+import com.azure.ai.inference.models.ChatRequestUserMessage;
+import com.azure.ai.inference.models.StreamingChatResponseMessageUpdate;
+import com.azure.core.credential.AzureKeyCredential;
+import com.example.animal_adoption_platform.model.ChatTurn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modelul găzduit în Azure AI Inference (implicit gpt-4o).
+ */
+@Component
+public class AzureChatBackend implements ChatBackend {
+
+    public static final String NAME = "azure";
+
+    private final ChatCompletionsClient client;
+    private final ChatCompletionsAsyncClient asyncClient;
+    private final String model;
+
+    public AzureChatBackend(@Value("${assistant.azure.endpoint:https://models.inference.ai.azure.com}") String endpoint,
+                            @Value("${assistant.azure.model:gpt-4o}") String model) {
+        String key =  APIKEY;
+        this.model = model;
+
+        ChatCompletionsClientBuilder builder = new ChatCompletionsClientBuilder()
+                .credential(new AzureKeyCredential(key))
+                .endpoint(endpoint);
+        this.client = builder.buildClient();
+        this.asyncClient = builder.buildAsyncClient();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public String complete(List<ChatTurn> messages) {
+        return client.complete(toOptions(messages)).getChoice().getMessage().getContent();
+    }
+
+    /**
+     * Cererea HTTP este închisă când abonamentul este anulat.
+     */
+    @Override
+    public Flux<String> stream(List<ChatTurn> messages) {
+        return asyncClient.completeStream(toOptions(messages))
+                .filter(update -> update.getChoices() != null && !update.getChoices().isEmpty())
+                // ultimul fragment (finish_reason) poate veni fără delta
+                .filter(update -> update.getChoice().getDelta() != null)
+                .map(update -> update.getChoice().getDelta())
+                .map(StreamingChatResponseMessageUpdate::getContent)
+                .filter(content -> content != null && !content.isEmpty());
+    }
+
+    private ChatCompletionsOptions toOptions(List<ChatTurn> messages) {
+        List<ChatRequestMessage> chatMessages = new ArrayList<>();
+        for (ChatTurn message : messages) {
+            if (ChatTurn.SYSTEM.equals(message.getRole())) {
+                chatMessages.add(new ChatRequestSystemMessage(message.getContent()));
+            } else if (ChatTurn.ASSISTANT.equals(message.getRole())) {
+                chatMessages.add(new ChatRequestAssistantMessage(message.getContent()));
+            } else {
+                chatMessages.add(new ChatRequestUserMessage(message.getContent()));
+            }
+        }
+        ChatCompletionsOptions chatCompletionsOptions = new ChatCompletionsOptions(chatMessages);
+        chatCompletionsOptions.setModel(model);
+        return chatCompletionsOptions;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.model.ChatTurn;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Un model de chat la care asistentul virtual poate trimite cereri. Mesajele sunt date în
+ * ordine, cu rolurile din {@link ChatTurn} (system, user, assistant).
+ */
+public interface ChatBackend {
+
+    String getName();
+
+    /**
+     * False dacă backend-ul nu este configurat în această instanță a aplicației.
+     */
+    boolean isAvailable();
+
+    String complete(List<ChatTurn> messages);
+
+    Flux<String> stream(List<ChatTurn> messages);
+}
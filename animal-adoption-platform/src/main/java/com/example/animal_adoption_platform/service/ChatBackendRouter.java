@@ -0,0 +1,359 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.model.ChatTurn;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Alege modelul de chat pentru fiecare cerere a asistentului. Backend-ul preferat primește
+ * cererea cât timp este sănătos: rata de erori și p95 al latenței din ultimele minute sunt sub
+ * praguri ({@code maxErrorRate}, {@code latencySloMs}). Dacă nu răspunde până la termenul de
+ * hedging (p95-ul lui, dar cel puțin {@code hedgeAfterMs}), aceeași cerere este trimisă și
+ * celuilalt backend, se folosește primul răspuns, iar cererea rămasă este anulată; dacă eșuează,
+ * cererea trece imediat la celălalt. Răspunsurile în fragmente sunt măsurate separat, după
+ * timpul până la primul fragment.
+ */
+@Service
+public class ChatBackendRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatBackendRouter.class);
+
+    private static final int MAX_SAMPLES = 200;
+    // sub acest număr de măsurători backend-ul nu este considerat degradat
+    private static final int MIN_SAMPLES = 10;
+
+    private final List<ChatBackend> backends;
+    private final String preferred;
+    private final long hedgeAfterMs;
+    private final long latencySloMs;
+    private final long timeoutMs;
+    private final double maxErrorRate;
+    private final Duration window;
+
+    private final Map<String, BackendStats> statsByBackend = new ConcurrentHashMap<>();
+    private final AtomicLong hedged = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final ThreadPoolExecutor callers;
+
+    public ChatBackendRouter(List<ChatBackend> backends,
+                             @Value("${assistant.router.primary:azure}") String preferred,
+                             @Value("${assistant.router.hedge-after-ms:5000}") long hedgeAfterMs,
+                             @Value("${assistant.router.latency-slo-ms:15000}") long latencySloMs,
+                             @Value("${assistant.router.timeout-ms:60000}") long timeoutMs,
+                             @Value("${assistant.router.max-error-rate:0.5}") double maxErrorRate,
+                             @Value("${assistant.router.window-seconds:300}") long windowSeconds,
+                             @Value("${assistant.router.max-concurrent-calls:32}") int maxConcurrentCalls) {
+        this.backends = backends;
+        this.preferred = preferred;
+        this.hedgeAfterMs = hedgeAfterMs;
+        this.latencySloMs = latencySloMs;
+        this.timeoutMs = timeoutMs;
+        this.maxErrorRate = maxErrorRate;
+        this.window = Duration.ofSeconds(windowSeconds);
+        // apelurile sincrone ocupă câte un fir până la răspuns; peste limită cererile sunt refuzate
+        this.callers = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>());
+        this.callers.allowCoreThreadTimeOut(true);
+    }
+
+    public String complete(List<ChatTurn> messages) {
+        List<ChatBackend> order = rank(false);
+        Call first = call(order.get(0), messages);
+        if (order.size() == 1) {
+            return await(first.result, timeoutMs, first);
+        }
+        ChatBackend second = order.get(1);
+        long hedgeDelayMs = hedgeDelayMs(order.get(0), false);
+        try {
+            return first.result.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            hedged.incrementAndGet();
+            Call hedge = call(second, messages);
+            return await(firstSuccessful(first, hedge), Math.max(1, timeoutMs - hedgeDelayMs), first, hedge);
+        } catch (ExecutionException e) {
+            fallbacks.incrementAndGet();
+            logger.warn("Chat backend {} failed, falling back to {}: {}",
+                    order.get(0).getName(), second.getName(), e.getCause().getMessage());
+            Call fallback = call(second, messages);
+            return await(fallback.result, timeoutMs, fallback);
+        } catch (InterruptedException e) {
+            first.cancel();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the assistant", e);
+        }
+    }
+
+    /**
+     * Fragmentele primului backend care produce unul. Al doilea backend este abonat după termenul
+     * de hedging sau imediat ce primul se termină fără niciun fragment; celălalt flux este anulat
+     * la primul fragment primit.
+     */
+    public Flux<String> stream(List<ChatTurn> messages) {
+        return Flux.defer(() -> {
+            List<ChatBackend> order = rank(true);
+            Flux<String> first = measured(order.get(0), messages);
+            if (order.size() == 1) {
+                return first;
+            }
+            Sinks.Empty<Void> firstEnded = Sinks.empty();
+            AtomicBoolean firstFailed = new AtomicBoolean();
+            Flux<String> second = measured(order.get(1), messages)
+                    .doOnSubscribe(subscription -> (firstFailed.get() ? fallbacks : hedged).incrementAndGet())
+                    .delaySubscription(Mono.firstWithSignal(
+                            Mono.delay(Duration.ofMillis(hedgeDelayMs(order.get(0), true))).then(), firstEnded.asMono()));
+            return Flux.firstWithValue(
+                    first.doOnError(error -> firstFailed.set(true)).doOnTerminate(firstEnded::tryEmitEmpty),
+                    second);
+        });
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("preferred", preferred);
+        stats.put("hedgeAfterMs", hedgeAfterMs);
+        stats.put("latencySloMs", latencySloMs);
+        stats.put("hedged", hedged.get());
+        stats.put("fallbacks", fallbacks.get());
+        stats.put("rejected", rejected.get());
+        stats.put("activeCalls", callers.getActiveCount());
+        Map<String, Object> perBackend = new LinkedHashMap<>();
+        for (ChatBackend backend : backends) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("available", backend.isAvailable());
+            entry.put("complete", describe(backend, false));
+            entry.put("stream", describe(backend, true));
+            perBackend.put(backend.getName(), entry);
+        }
+        stats.put("backends", perBackend);
+        return stats;
+    }
+
+    private Map<String, Object> describe(ChatBackend backend, boolean streaming) {
+        BackendStats backendStats = statsOf(backend, streaming);
+        Map<String, Object> entry = new LinkedHashMap<>();
+        synchronized (backendStats) {
+            backendStats.prune(cutoff());
+            entry.put("samples", backendStats.size());
+            entry.put("p95Ms", backendStats.p95());
+            entry.put("errorRate", backendStats.errorRate());
+        }
+        entry.put("degraded", isDegraded(backend, streaming));
+        return entry;
+    }
+
+    /**
+     * Backend-urile disponibile, cel preferat primul, cu excepția cazului în care este degradat
+     * iar următorul nu.
+     */
+    private List<ChatBackend> rank(boolean streaming) {
+        List<ChatBackend> available = new ArrayList<>();
+        for (ChatBackend backend : backends) {
+            if (backend.isAvailable()) available.add(backend);
+        }
+        if (available.isEmpty()) {
+            throw new IllegalStateException("No chat backend is configured");
+        }
+        available.sort(Comparator.comparing(backend -> !backend.getName().equals(preferred)));
+        if (available.size() > 1 && isDegraded(available.get(0), streaming) && !isDegraded(available.get(1), streaming)) {
+            Collections.swap(available, 0, 1);
+        }
+        return available;
+    }
+
+    // măsurătorile vechi ies din fereastră, deci un backend ocolit este încercat din nou după cel mult o fereastră
+    private boolean isDegraded(ChatBackend backend, boolean streaming) {
+        BackendStats stats = statsOf(backend, streaming);
+        synchronized (stats) {
+            stats.prune(cutoff());
+            return stats.size() >= MIN_SAMPLES
+                    && (stats.errorRate() > maxErrorRate || stats.p95() > latencySloMs);
+        }
+    }
+
+    /**
+     * Cât se așteaptă backend-ul ales înainte de hedging: p95-ul lui, ca doar cozile lente să
+     * dubleze cererea, între {@code hedgeAfterMs} și {@code latencySloMs}.
+     */
+    private long hedgeDelayMs(ChatBackend backend, boolean streaming) {
+        BackendStats stats = statsOf(backend, streaming);
+        long p95;
+        synchronized (stats) {
+            stats.prune(cutoff());
+            p95 = stats.size() >= MIN_SAMPLES ? stats.p95() : 0;
+        }
+        return Math.min(Math.max(hedgeAfterMs, p95), Math.max(hedgeAfterMs, latencySloMs));
+    }
+
+    private Call call(ChatBackend backend, List<ChatTurn> messages) {
+        Call call = new Call();
+        try {
+            call.task = callers.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    String answer = backend.complete(messages);
+                    record(backend, false, start, false);
+                    call.result.complete(answer);
+                } catch (RuntimeException e) {
+                    // un apel anulat nu este o eroare a backend-ului; timpul scurs rămâne ca latență
+                    record(backend, false, start, !call.cancelled.get());
+                    call.result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            call.result.completeExceptionally(new IllegalStateException("Too many assistant requests in progress"));
+        }
+        return call;
+    }
+
+    private Flux<String> measured(ChatBackend backend, List<ChatTurn> messages) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return backend.stream(messages)
+                    .doOnNext(token -> {
+                        if (recorded.compareAndSet(false, true)) record(backend, true, start, false);
+                    })
+                    // anulat înainte de primul fragment: timpul scurs este păstrat ca latență
+                    .doFinally(signal -> {
+                        if (recorded.compareAndSet(false, true)) record(backend, true, start, signal == SignalType.ON_ERROR);
+                    });
+        });
+    }
+
+    /**
+     * Primul răspuns reușit dintre cele două apeluri; celălalt apel este anulat imediat.
+     */
+    private static CompletableFuture<String> firstSuccessful(Call a, Call b) {
+        CompletableFuture<String> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (Call candidate : List.of(a, b)) {
+            Call other = candidate == a ? b : a;
+            candidate.result.whenComplete((answer, error) -> {
+                if (error == null) {
+                    if (winner.complete(answer)) other.cancel();
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+        return winner;
+    }
+
+    private String await(CompletableFuture<String> future, long waitMs, Call... calls) {
+        try {
+            return future.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            throw new IllegalStateException("Chat backend failed: " + cause.getMessage(), cause);
+        } catch (TimeoutException e) {
+            Arrays.stream(calls).forEach(Call::cancel);
+            throw new IllegalStateException("No chat backend answered within " + timeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Arrays.stream(calls).forEach(Call::cancel);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the assistant", e);
+        }
+    }
+
+    private void record(ChatBackend backend, boolean streaming, long startNanos, boolean failed) {
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        BackendStats stats = statsOf(backend, streaming);
+        synchronized (stats) {
+            stats.add(new Sample(System.currentTimeMillis(), latencyMs, failed));
+        }
+    }
+
+    private BackendStats statsOf(ChatBackend backend, boolean streaming) {
+        return statsByBackend.computeIfAbsent(backend.getName() + (streaming ? ":stream" : ":complete"),
+                name -> new BackendStats());
+    }
+
+    private long cutoff() {
+        return System.currentTimeMillis() - window.toMillis();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        callers.shutdownNow();
+    }
+
+    /**
+     * Un apel sincron în curs. Anularea întrerupe firul, ceea ce închide cererea HTTP blocată.
+     */
+    private static class Call {
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        volatile Future<?> task;
+
+        void cancel() {
+            if (!result.isDone() && cancelled.compareAndSet(false, true) && task != null) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    private static class Sample {
+        final long timestamp;
+        final long latencyMs;
+        final boolean failed;
+
+        Sample(long timestamp, long latencyMs, boolean failed) {
+            this.timestamp = timestamp;
+            this.latencyMs = latencyMs;
+            this.failed = failed;
+        }
+    }
+
+    /**
+     * Ultimele {@code MAX_SAMPLES} măsurători ale unui backend; accesul este sincronizat pe obiect.
+     */
+    private static class BackendStats {
+        private final Deque<Sample> samples = new ArrayDeque<>();
+
+        void add(Sample sample) {
+            samples.addLast(sample);
+            if (samples.size() > MAX_SAMPLES) {
+                samples.removeFirst();
+            }
+        }
+
+        void prune(long cutoff) {
+            while (!samples.isEmpty() && samples.peekFirst().timestamp < cutoff) {
+                samples.removeFirst();
+            }
+        }
+
+        int size() {
+            return samples.size();
+        }
+
+        double errorRate() {
+            if (samples.isEmpty()) return 0;
+            long failed = samples.stream().filter(sample -> sample.failed).count();
+            return (double) failed / samples.size();
+        }
+
+        // doar cererile reușite; un backend care eșuează repede nu trebuie să pară rapid
+        long p95() {
+            long[] latencies = samples.stream().filter(sample -> !sample.failed).mapToLong(sample -> sample.latencyMs).sorted().toArray();
+            if (latencies.length == 0) return 0;
+            return latencies[(int) Math.ceil(latencies.length * 0.95) - 1];
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.model.ClinicPlace;
+import com.example.animal_adoption_platform.model.ClinicTile;
+import jakarta.annotation.PreDestroy;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Căutarea clinicilor pe hartă, pe dale fixe (schema z/x/y a hărților web) în loc de viewbox-ul
+ * arbitrar al fiecărei deplasări a hărții. Zona cerută este acoperită de dalele ei; cele aflate
+ * deja în colecția {@code clinicTiles} nu mai sunt cerute, iar restul sunt aduse prin
+ * {@link NominatimClient}, deci respectă limita de rată. Cererea așteaptă cel mult
+ * {@code MAX_FETCHES_PER_REQUEST} dale noi; celelalte sunt încărcate în fundal și apar la
+ * următoarea deplasare a hărții. O zonă prea mare pentru dale este căutată cu o singură cerere
+ * pe viewbox. Rezultatele sunt apoi filtrate la zona cerută și deduplicate.
+ */
+@Service
+public class ClinicTileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClinicTileCache.class);
+
+    // la 45° latitudine o dală de nivel 13 are ~3,4 km
+    private static final int MAX_ZOOM = 13;
+    private static final int MIN_ZOOM = 8;
+    private static final int MAX_TILES_PER_REQUEST = 16;
+    private static final int MAX_FETCHES_PER_REQUEST = 2;
+    private static final int MAX_QUEUED_PREFETCHES = 256;
+
+    private final MongoTemplate mongoTemplate;
+    private final NominatimClient nominatimClient;
+    private final Map<String, CompletableFuture<ClinicTile>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    // un singur fir: cererile de fundal trec oricum prin aceeași limită de rată
+    private final ExecutorService prefetcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(MAX_QUEUED_PREFETCHES));
+
+    public ClinicTileCache(MongoTemplate mongoTemplate, NominatimClient nominatimClient) {
+        this.mongoTemplate = mongoTemplate;
+        this.nominatimClient = nominatimClient;
+    }
+
+    public List<ClinicPlace> search(double latMin, double latMax, double lonMin, double lonMax, String keyword) {
+        String normalizedKeyword = keyword.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+
+        // zona mare este acoperită cu dale mai mari, ca numărul de cereri să rămână limitat
+        int zoom = MAX_ZOOM;
+        while (zoom > MIN_ZOOM && tileCount(zoom, latMin, latMax, lonMin, lonMax) > MAX_TILES_PER_REQUEST) {
+            zoom--;
+        }
+        if (tileCount(zoom, latMin, latMax, lonMin, lonMax) > MAX_TILES_PER_REQUEST) {
+            String url = String.format(Locale.ROOT,
+                    "/search?q=%s&format=json&bounded=1&viewbox=%f,%f,%f,%f&limit=50&countrycodes=ro",
+                    URLEncoder.encode(normalizedKeyword, StandardCharsets.UTF_8), lonMin, latMax, lonMax, latMin);
+            return withinBox(parseClinics(nominatimClient.get(url)), latMin, latMax, lonMin, lonMax);
+        }
+        int xMin = tileX(lonMin, zoom), xMax = tileX(lonMax, zoom);
+        int yMin = tileY(latMax, zoom), yMax = tileY(latMin, zoom);
+
+        List<String> keys = new ArrayList<>();
+        for (int x = xMin; x <= xMax; x++) {
+            for (int y = yMin; y <= yMax; y++) {
+                keys.add(key(zoom, x, y, normalizedKeyword));
+            }
+        }
+        Map<String, ClinicTile> tiles = new HashMap<>();
+        for (ClinicTile tile : mongoTemplate.find(new Query(Criteria.where("key").in(keys)), ClinicTile.class)) {
+            tiles.put(tile.getKey(), tile);
+        }
+
+        int fetched = 0;
+        for (int x = xMin; x <= xMax; x++) {
+            for (int y = yMin; y <= yMax; y++) {
+                String key = key(zoom, x, y, normalizedKeyword);
+                if (tiles.containsKey(key)) continue;
+                if (fetched >= MAX_FETCHES_PER_REQUEST) {
+                    prefetch(zoom, x, y, normalizedKeyword);
+                    continue;
+                }
+                fetched++;
+                try {
+                    tiles.put(key, fetch(zoom, x, y, normalizedKeyword));
+                } catch (RuntimeException e) {
+                    // se întorc rezultatele dalelor disponibile; dala lipsă va fi cerută data viitoare
+                    logger.warn("Could not load clinic tile {}: {}", key, e.getMessage());
+                }
+            }
+        }
+
+        List<ClinicPlace> clinics = new ArrayList<>();
+        for (ClinicTile tile : tiles.values()) {
+            clinics.addAll(tile.getClinics());
+        }
+        return withinBox(clinics, latMin, latMax, lonMin, lonMax);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetcher.shutdownNow();
+    }
+
+    private static List<ClinicPlace> withinBox(List<ClinicPlace> clinics, double latMin, double latMax,
+                                               double lonMin, double lonMax) {
+        Map<String, ClinicPlace> merged = new LinkedHashMap<>();
+        for (ClinicPlace clinic : clinics) {
+            if (clinic.getLatitude() >= latMin && clinic.getLatitude() <= latMax
+                    && clinic.getLongitude() >= lonMin && clinic.getLongitude() <= lonMax) {
+                merged.putIfAbsent(clinic.getPlaceId(), clinic);
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Pune dala în coada de fundal, o singură dată; dacă coada este plină, dala va fi cerută la o
+     * căutare ulterioară.
+     */
+    private void prefetch(int zoom, int x, int y, String keyword) {
+        String key = key(zoom, x, y, keyword);
+        if (!queued.add(key)) {
+            return;
+        }
+        try {
+            prefetcher.execute(() -> {
+                try {
+                    if (!mongoTemplate.exists(new Query(Criteria.where("key").is(key)), ClinicTile.class)) {
+                        fetch(zoom, x, y, keyword);
+                    }
+                } catch (RuntimeException e) {
+                    logger.debug("Could not prefetch clinic tile {}: {}", key, e.getMessage());
+                } finally {
+                    queued.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(key);
+        }
+    }
+
+    /**
+     * Aduce o dală de la Nominatim și o salvează. Cererile simultane pentru aceeași dală așteaptă
+     * rezultatul primei.
+     */
+    private ClinicTile fetch(int zoom, int x, int y, String keyword) {
+        String key = key(zoom, x, y, keyword);
+        CompletableFuture<ClinicTile> own = new CompletableFuture<>();
+        CompletableFuture<ClinicTile> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            String url = String.format(Locale.ROOT,
+                    "/search?q=%s&format=json&bounded=1&viewbox=%f,%f,%f,%f&limit=50&countrycodes=ro",
+                    URLEncoder.encode(keyword, StandardCharsets.UTF_8),
+                    tileLon(x, zoom), tileLat(y, zoom), tileLon(x + 1, zoom), tileLat(y + 1, zoom));
+            List<ClinicPlace> clinics = parseClinics(nominatimClient.get(url));
+
+            ClinicTile tile = new ClinicTile(key, zoom, x, y, keyword, clinics, LocalDateTime.now());
+            try {
+                mongoTemplate.insert(tile);
+            } catch (DuplicateKeyException e) {
+                // salvată între timp de altă instanță
+            }
+            own.complete(tile);
+            return tile;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private static List<ClinicPlace> parseClinics(String body) {
+        JSONArray results = new JSONArray(body);
+        List<ClinicPlace> clinics = new ArrayList<>();
+        for (int i = 0; i < results.length(); i++) {
+            JSONObject result = results.getJSONObject(i);
+            String displayName = result.optString("display_name", "");
+            // doar rezultatele care par să fie clinici veterinare
+            String lower = displayName.toLowerCase();
+            if (lower.contains("veterinar") || lower.contains("vet") || lower.contains("clinica")) {
+                clinics.add(new ClinicPlace(result.optString("place_id", displayName), displayName,
+                        result.optDouble("lat"), result.optDouble("lon")));
+            }
+        }
+        return clinics;
+    }
+
+    private static int tileCount(int zoom, double latMin, double latMax, double lonMin, double lonMax) {
+        return (tileX(lonMax, zoom) - tileX(lonMin, zoom) + 1) * (tileY(latMin, zoom) - tileY(latMax, zoom) + 1);
+    }
+
+    private static int tileX(double longitude, int zoom) {
+        int n = 1 << zoom;
+        return Math.max(0, Math.min(n - 1, (int) Math.floor((longitude + 180.0) / 360.0 * n)));
+    }
+
+    private static int tileY(double latitude, int zoom) {
+        int n = 1 << zoom;
+        double latRad = Math.toRadians(latitude);
+        double y = (1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2 * n;
+        return Math.max(0, Math.min(n - 1, (int) Math.floor(y)));
+    }
+
+    private static double tileLon(int x, int zoom) {
+        return x / (double) (1 << zoom) * 360.0 - 180.0;
+    }
+
+    private static double tileLat(int y, int zoom) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2.0 * y / (1 << zoom)))));
+    }
+
+    private static String key(int zoom, int x, int y, String keyword) {
+        return zoom + "/" + x + "/" + y + "|" + keyword;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.dto.CommentDTO;
+import com.example.animal_adoption_platform.dto.CommentPageDTO;
+import com.example.animal_adoption_platform.event.CommentAddedEvent;
+import com.example.animal_adoption_platform.model.Comment;
+import com.example.animal_adoption_platform.model.CommentBucket;
+import com.example.animal_adoption_platform.model.Post;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Comentariile postărilor, ținute în afara documentului postării, în bucket-uri de dimensiune fixă.
+ * Un comentariu nou costă două operații atomice: $inc pe contorul postării (care îi dă poziția)
+ * și $push în bucket-ul corespunzător, creat la nevoie prin upsert.
+ */
+@Service
+public class CommentService {
+
+    public static final int BUCKET_SIZE = 50;
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentService.class);
+
+    private static final String LEGACY_COMMENTS = "legacyComments";
+    private static final String LEGACY_COMMENTS_FROM = "legacyCommentsFrom";
+    private static final String MIGRATED_MARKER = "migrated";
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CommentService(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public Comment addComment(String postId, CommentDTO commentDTO) {
+        Comment comment = new Comment(commentDTO.getUserId(), commentDTO.getContent(), LocalDateTime.now());
+        append(postId, List.of(comment));
+        eventPublisher.publishEvent(new CommentAddedEvent(postId, comment));
+        return comment;
+    }
+
+    /**
+     * Un bucket de comentarii; fără bucket se întoarce cel mai recent.
+     */
+    public CommentPageDTO getComments(String postId, Integer bucket) {
+        int total = commentCount(postId);
+        int lastBucket = total == 0 ? 0 : (total - 1) / BUCKET_SIZE;
+        int requested = bucket == null ? lastBucket : Math.max(0, Math.min(bucket, lastBucket));
+
+        Query query = new Query(Criteria.where("postId").is(postId).and("bucket").is(requested));
+        query.fields().include("comments");
+        CommentBucket found = mongoTemplate.findOne(query, CommentBucket.class);
+        List<Comment> comments = found != null && found.getComments() != null ? found.getComments() : new ArrayList<>();
+        return new CommentPageDTO(comments, requested, requested > 0 ? requested - 1 : null, total);
+    }
+
+    public void deleteComments(String postId) {
+        mongoTemplate.remove(new Query(Criteria.where("postId").is(postId)), CommentBucket.class);
+    }
+
+    private void append(String postId, List<Comment> comments) {
+        Post post = mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(postId)),
+                new Update().inc("commentCount", comments.size()),
+                FindAndModifyOptions.options().returnNew(true),
+                Post.class);
+        if (post == null) {
+            throw new IllegalArgumentException("Post not found: " + postId);
+        }
+
+        // pozițiile rezervate sunt [first, last]; pot traversa granița dintre două bucket-uri
+        int first = post.getCommentCount() - comments.size();
+        int position = first;
+        while (position < post.getCommentCount()) {
+            int bucket = position / BUCKET_SIZE;
+            int end = Math.min(post.getCommentCount(), (bucket + 1) * BUCKET_SIZE);
+            List<Comment> slice = comments.subList(position - first, end - first);
+            Query bucketQuery = new Query(Criteria.where("postId").is(postId).and("bucket").is(bucket));
+            Update push = new Update().push("comments").each(slice.toArray()).inc("count", slice.size());
+            try {
+                mongoTemplate.upsert(bucketQuery, push, CommentBucket.class);
+            } catch (DuplicateKeyException e) {
+                // două upsert-uri simultane pe un bucket nou: unul l-a creat, al doilea doar adaugă
+                mongoTemplate.upsert(bucketQuery, push, CommentBucket.class);
+            }
+            position = end;
+        }
+    }
+
+    private int commentCount(String postId) {
+        Query query = new Query(Criteria.where("id").is(postId));
+        query.fields().include("commentCount");
+        Post post = mongoTemplate.findOne(query, Post.class);
+        return post != null ? post.getCommentCount() : 0;
+    }
+
+    /**
+     * Mută în bucket-uri comentariile salvate în documentele postărilor mai vechi. Fiecare postare
+     * trece prin doi pași reluabili după o oprire: întâi, într-o singură actualizare atomică,
+     * comentariile sunt mutate în {@code legacyComments} și li se rezervă pozițiile (de la
+     * {@code legacyCommentsFrom}); apoi sunt scrise în bucket-uri, iar fiecare bucket completat
+     * este marcat, ca o reluare să nu le adauge a doua oară.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateEmbeddedComments() {
+        try {
+            String posts = mongoTemplate.getCollectionName(Post.class);
+            int migrated = 0;
+            // întâi postările rămase la jumătate de o rulare anterioară
+            Query staged = new Query(Criteria.where(LEGACY_COMMENTS).exists(true));
+            staged.fields().include(LEGACY_COMMENTS, LEGACY_COMMENTS_FROM);
+            for (Document document : mongoTemplate.find(staged, Document.class, posts)) {
+                writeLegacyComments(document, posts);
+                migrated++;
+            }
+
+            Query embedded = new Query(Criteria.where("comments").exists(true));
+            embedded.fields().include("_id");
+            for (Document document : mongoTemplate.find(embedded, Document.class, posts)) {
+                Document stagedPost = stage(document.get("_id"), posts);
+                if (stagedPost != null) {
+                    writeLegacyComments(stagedPost, posts);
+                    migrated++;
+                }
+            }
+            if (migrated > 0) {
+                logger.info("Migrated embedded comments of {} posts", migrated);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not migrate embedded comments: {}", e.getMessage());
+        }
+    }
+
+    private Document stage(Object postId, String posts) {
+        AggregationExpression currentCount = ConditionalOperators.ifNull("commentCount").then(0);
+        AggregationUpdate update = AggregationUpdate.update()
+                .set(LEGACY_COMMENTS_FROM).toValue(currentCount)
+                .set("commentCount").toValue(ArithmeticOperators.valueOf(currentCount)
+                        .add(ArrayOperators.Size.lengthOfArray(ConditionalOperators.ifNull("comments").then(List.of()))))
+                .set(LEGACY_COMMENTS).toValueOf("comments")
+                .unset("comments");
+        Query query = new Query(Criteria.where("_id").is(postId).and("comments").exists(true));
+        query.fields().include(LEGACY_COMMENTS, LEGACY_COMMENTS_FROM);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                Document.class, posts);
+    }
+
+    private void writeLegacyComments(Document document, String posts) {
+        Object postId = document.get("_id");
+        List<Comment> comments = new ArrayList<>();
+        List<Document> embedded = document.getList(LEGACY_COMMENTS, Document.class);
+        if (embedded != null) {
+            for (Document stored : embedded) {
+                Date createdAt = stored.getDate("createdAt");
+                comments.add(new Comment(stored.getString("userId"), stored.getString("content"),
+                        createdAt != null ? LocalDateTime.ofInstant(createdAt.toInstant(), ZoneId.systemDefault()) : null));
+            }
+        }
+
+        int first = document.getInteger(LEGACY_COMMENTS_FROM, 0);
+        int last = first + comments.size();
+        int position = first;
+        while (position < last) {
+            int bucket = position / BUCKET_SIZE;
+            int end = Math.min(last, (bucket + 1) * BUCKET_SIZE);
+            List<Comment> slice = comments.subList(position - first, end - first);
+            // bucket-ul deja marcat nu corespunde interogării; upsert-ul încearcă atunci să creeze unul
+            // nou și se lovește de indexul unic, deci porțiunea a fost scrisă la o rulare anterioară
+            Query bucketQuery = new Query(Criteria.where("postId").is(String.valueOf(postId)).and("bucket").is(bucket)
+                    .and(MIGRATED_MARKER).ne(LEGACY_COMMENTS));
+            Update push = new Update().push("comments").each(slice.toArray()).inc("count", slice.size())
+                    .addToSet(MIGRATED_MARKER, LEGACY_COMMENTS);
+            try {
+                mongoTemplate.upsert(bucketQuery, push, CommentBucket.class);
+            } catch (DuplicateKeyException e) {
+                try {
+                    mongoTemplate.upsert(bucketQuery, push, CommentBucket.class);
+                } catch (DuplicateKeyException alreadyWritten) {
+                    // scris la o rulare anterioară
+                }
+            }
+            position = end;
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(postId)),
+                new Update().unset(LEGACY_COMMENTS).unset(LEGACY_COMMENTS_FROM), posts);
+    }
+}
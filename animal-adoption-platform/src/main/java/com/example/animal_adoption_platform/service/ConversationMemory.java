@@ -0,0 +1,215 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.model.ChatSession;
+import com.example.animal_adoption_platform.model.ChatTurn;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memoria conversațiilor cu asistentul. Sesiunile active stau într-un LRU în memorie; cele
+ * modificate sunt salvate în {@code chatSessions} periodic și la oprire, inclusiv cele scoase între
+ * timp din LRU. Lock-ul LRU-ului nu este ținut niciodată în timpul unei operații MongoDB.
+ * Istoricul trimis modelului are un buget fix de tokeni: replicile cele mai vechi sunt scoase și
+ * întrebările lor rămân doar într-un rezumat scurt, iar o replică mai lungă decât bugetul este
+ * trunchiată, deci dimensiunea cererii nu crește cu lungimea conversației.
+ */
+@Service
+public class ConversationMemory {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationMemory.class);
+
+    private static final int MAX_ACTIVE_SESSIONS = 1000;
+    private static final int HISTORY_TOKEN_BUDGET = 1500;
+    private static final int SUMMARY_TOKEN_BUDGET = 300;
+    private static final int SUMMARY_LINE_CHARS = 160;
+
+    private final MongoTemplate mongoTemplate;
+    // sesiunile modificate și nesalvate, chiar dacă au ieșit din LRU; se scot doar după salvare
+    private final Map<String, ChatSession> dirty = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, ChatSession> active = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ChatSession> eldest) {
+            return size() > MAX_ACTIVE_SESSIONS;
+        }
+    };
+
+    public ConversationMemory(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Sesiunea cu id-ul dat: din memorie, din MongoDB sau una nouă.
+     */
+    public ChatSession get(String sessionId) {
+        synchronized (active) {
+            ChatSession session = active.get(sessionId);
+            if (session != null) {
+                return session;
+            }
+        }
+        // o sesiune scoasă din LRU, dar încă nesalvată, are starea cea mai nouă
+        ChatSession loaded = dirty.get(sessionId);
+        if (loaded == null) {
+            loaded = mongoTemplate.findById(sessionId, ChatSession.class);
+        }
+        if (loaded == null) {
+            loaded = new ChatSession(sessionId, null, new ArrayList<>(), LocalDateTime.now());
+        }
+        synchronized (active) {
+            // alt fir poate să o fi încărcat între timp; câștigă prima instanță
+            ChatSession existing = active.putIfAbsent(sessionId, loaded);
+            return existing != null ? existing : loaded;
+        }
+    }
+
+    /**
+     * O copie a istoricului, pentru construirea cererii fără a ține sesiunea blocată în timpul apelului.
+     */
+    public Snapshot snapshot(ChatSession session) {
+        synchronized (session) {
+            return new Snapshot(session.getSummary(), new ArrayList<>(session.getTurns()));
+        }
+    }
+
+    public void record(ChatSession session, String prompt, String answer) {
+        synchronized (session) {
+            session.getTurns().add(new ChatTurn(ChatTurn.USER, prompt));
+            session.getTurns().add(new ChatTurn(ChatTurn.ASSISTANT, answer));
+            compact(session);
+            session.setUpdatedAt(LocalDateTime.now());
+            dirty.put(session.getId(), session);
+        }
+    }
+
+    public void delete(String sessionId) {
+        synchronized (active) {
+            active.remove(sessionId);
+        }
+        dirty.remove(sessionId);
+        mongoTemplate.remove(new Query(Criteria.where("id").is(sessionId)), ChatSession.class);
+    }
+
+    @Scheduled(fixedDelayString = "${assistant.sessions.flush-interval-ms:60000}")
+    public void flush() {
+        for (ChatSession session : new ArrayList<>(dirty.values())) {
+            save(session);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Estimare aproximativă (~4 caractere pe token), suficientă pentru un buget.
+     */
+    static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + 3) / 4;
+    }
+
+    private void compact(ChatSession session) {
+        List<ChatTurn> turns = session.getTurns();
+        int total = tokens(turns);
+        StringBuilder summary = new StringBuilder(session.getSummary() != null ? session.getSummary() : "");
+        // replicile sunt scoase în perechi (întrebare + răspuns); ultima pereche rămâne mereu
+        while (total > HISTORY_TOKEN_BUDGET && turns.size() > 2) {
+            ChatTurn question = turns.remove(0);
+            total -= estimateTokens(question.getContent());
+            if (!turns.isEmpty() && ChatTurn.ASSISTANT.equals(turns.get(0).getRole())) {
+                total -= estimateTokens(turns.remove(0).getContent());
+            }
+            String line = question.getContent().replaceAll("\\s+", " ").trim();
+            if (line.length() > SUMMARY_LINE_CHARS) {
+                line = line.substring(0, SUMMARY_LINE_CHARS) + "…";
+            }
+            summary.append("- ").append(line).append('\n');
+        }
+        // din rezumat se păstrează liniile cele mai recente
+        while (estimateTokens(summary.toString()) > SUMMARY_TOKEN_BUDGET) {
+            int firstLineEnd = summary.indexOf("\n");
+            if (firstLineEnd < 0) break;
+            summary.delete(0, firstLineEnd + 1);
+        }
+        session.setSummary(summary.length() > 0 ? summary.toString() : null);
+        if (total > HISTORY_TOKEN_BUDGET) {
+            truncateToBudget(turns);
+        }
+    }
+
+    /**
+     * Împarte bugetul între replicile rămase, începând cu cele scurte, și trunchiază doar replicile
+     * care depășesc partea lor. Replicile sunt înlocuite, nu modificate, pentru că instantaneele
+     * luate anterior le folosesc încă.
+     */
+    static void truncateToBudget(List<ChatTurn> turns) {
+        List<Integer> bySize = new ArrayList<>();
+        for (int i = 0; i < turns.size(); i++) {
+            bySize.add(i);
+        }
+        bySize.sort(Comparator.comparingInt(i -> estimateTokens(turns.get(i).getContent())));
+        int remaining = HISTORY_TOKEN_BUDGET;
+        for (int rank = 0; rank < bySize.size(); rank++) {
+            int index = bySize.get(rank);
+            ChatTurn turn = turns.get(index);
+            int share = remaining / (bySize.size() - rank);
+            if (estimateTokens(turn.getContent()) > share) {
+                String truncated = turn.getContent().substring(0, Math.max(0, share * 4 - 1)) + "…";
+                turn = new ChatTurn(turn.getRole(), truncated);
+                turns.set(index, turn);
+            }
+            remaining -= estimateTokens(turn.getContent());
+        }
+    }
+
+    private static int tokens(List<ChatTurn> turns) {
+        return turns.stream().mapToInt(turn -> estimateTokens(turn.getContent())).sum();
+    }
+
+    /**
+     * Salvarea și scoaterea din {@code dirty} se fac sub lock-ul sesiunii, ca o modificare
+     * concurentă să nu-și piardă marcajul.
+     */
+    private void save(ChatSession session) {
+        try {
+            synchronized (session) {
+                mongoTemplate.save(session);
+                dirty.remove(session.getId(), session);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not save chat session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    public static class Snapshot {
+        private final String summary;
+        private final List<ChatTurn> turns;
+
+        Snapshot(String summary, List<ChatTurn> turns) {
+            this.summary = summary;
+            this.turns = turns;
+        }
+
+        public String getSummary() {
+            return summary;
+        }
+
+        public List<ChatTurn> getTurns() {
+            return turns;
+        }
+
+        public boolean isEmpty() {
+            return summary == null && turns.isEmpty();
+        }
+    }
+}
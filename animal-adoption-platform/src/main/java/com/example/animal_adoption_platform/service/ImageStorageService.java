@@ -0,0 +1,171 @@
+package com.example.animal_adoption_platform.service;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsCriteria;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Stochează imaginile animalelor în GridFS, adresate după conținut (id = SHA-256 al octeților).
+ * La încărcare se generează o singură dată și o miniatură JPEG de dimensiune fixă. Sunt acceptate
+ * doar formatele raster din {@code ALLOWED_TYPES}, recunoscute după primii octeți; tipul declarat
+ * de client în data URL este ignorat, ca un SVG sau HTML să nu fie servit de pe originea API-ului.
+ */
+@Service
+public class ImageStorageService {
+
+    public static final int THUMBNAIL_SIZE = 320;
+    private static final String THUMBNAIL_SUFFIX = "_thumb";
+    private static final Pattern IMAGE_ID = Pattern.compile("^[0-9a-f]{64}$");
+    private static final Set<String> ALLOWED_TYPES = Set.of("image/jpeg", "image/png", "image/gif", "image/webp", "image/bmp");
+
+    private final GridFsTemplate gridFsTemplate;
+
+    public ImageStorageService(GridFsTemplate gridFsTemplate) {
+        this.gridFsTemplate = gridFsTemplate;
+    }
+
+    public static boolean isImageId(String value) {
+        return value != null && IMAGE_ID.matcher(value).matches();
+    }
+
+    /**
+     * Primește imaginea așa cum o trimite interfața (data URL base64 sau base64 simplu) și întoarce
+     * id-ul ei. O imagine deja stocată nu este scrisă a doua oară.
+     */
+    public String store(String encodedImage) {
+        if (isImageId(encodedImage)) {
+            return encodedImage;
+        }
+        String base64 = encodedImage;
+        if (encodedImage.startsWith("data:")) {
+            int separator = encodedImage.indexOf(";base64,");
+            if (separator > 0) {
+                base64 = encodedImage.substring(separator + ";base64,".length());
+            }
+        }
+        byte[] data;
+        try {
+            data = Base64.getMimeDecoder().decode(base64);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid image encoding");
+        }
+        String contentType = detectContentType(data);
+        if (contentType == null) {
+            throw new IllegalArgumentException("Unsupported image format");
+        }
+        String imageId = sha256(data);
+
+        if (findFile(imageId) == null) {
+            gridFsTemplate.store(new ByteArrayInputStream(data), imageId, contentType,
+                    new Document("kind", "original"));
+            byte[] thumbnail = createThumbnail(data);
+            if (thumbnail != null) {
+                gridFsTemplate.store(new ByteArrayInputStream(thumbnail), imageId + THUMBNAIL_SUFFIX, "image/jpeg",
+                        new Document("kind", "thumbnail").append("original", imageId));
+            }
+        }
+        return imageId;
+    }
+
+    public Optional<GridFsResource> open(String imageId, boolean thumbnail) {
+        if (!isImageId(imageId)) {
+            return Optional.empty();
+        }
+        GridFSFile file = thumbnail ? findFile(imageId + THUMBNAIL_SUFFIX) : null;
+        if (file == null) {
+            // formatele pe care ImageIO nu le poate citi nu au miniatură; se servește originalul
+            file = findFile(imageId);
+        }
+        return file == null ? Optional.empty() : Optional.of(gridFsTemplate.getResource(file));
+    }
+
+    public static boolean isAllowedType(String contentType) {
+        return contentType != null && ALLOWED_TYPES.contains(contentType);
+    }
+
+    /**
+     * Două încărcări simultane ale aceleiași imagini pot scrie fișierul de două ori; conținutul este
+     * identic, așa că se folosește primul.
+     */
+    private GridFSFile findFile(String filename) {
+        return gridFsTemplate.find(new Query(GridFsCriteria.whereFilename().is(filename)))
+                .sort(new Document("uploadDate", 1))
+                .limit(1)
+                .first();
+    }
+
+    static String detectContentType(byte[] data) {
+        if (startsWith(data, 0, 0xFF, 0xD8, 0xFF)) return "image/jpeg";
+        if (startsWith(data, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) return "image/png";
+        if (startsWith(data, 0, 'G', 'I', 'F', '8')) return "image/gif";
+        if (startsWith(data, 0, 'R', 'I', 'F', 'F') && startsWith(data, 8, 'W', 'E', 'B', 'P')) return "image/webp";
+        if (startsWith(data, 0, 'B', 'M')) return "image/bmp";
+        return null;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int... signature) {
+        if (data.length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((data[offset + i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] createThumbnail(byte[] data) {
+        try {
+            BufferedImage original = ImageIO.read(new ByteArrayInputStream(data));
+            if (original == null) {
+                return null;
+            }
+            double scale = Math.min(1.0, (double) THUMBNAIL_SIZE / Math.max(original.getWidth(), original.getHeight()));
+            int width = Math.max(1, (int) Math.round(original.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(original.getHeight() * scale));
+
+            BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = thumbnail.createGraphics();
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(original, 0, 0, width, height, null);
+            graphics.dispose();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(thumbnail, "jpg", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.model.GeocodeCacheEntry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Toate cererile către Nominatim trec pe aici. Politica serviciului public cere cel mult o
+ * cerere pe secundă, așa că cererile sunt eșalonate printr-un token bucket; geocodările directe
+ * și inverse sunt păstrate în colecția {@code geocodeCache}, iar cererile identice aflate în curs
+ * în același timp sunt unite într-o singură cerere HTTP.
+ */
+@Component
+public class NominatimClient {
+
+    private static final String USER_AGENT = "animal-platform/0.1 (contact@yourdomain.com)";
+    // 3 zecimale ≈ 111 m pe latitudine
+    private static final double REVERSE_PRECISION = 1000.0;
+    private static final long MAX_QUEUE_WAIT_MS = 10_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final String baseUrl;
+    private final TokenBucket rateLimiter;
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, CompletableFuture<GeocodeCacheEntry>> inFlight = new ConcurrentHashMap<>();
+
+    public NominatimClient(MongoTemplate mongoTemplate,
+                           @Value("${geocoding.nominatim-url:https://nominatim.openstreetmap.org}") String baseUrl,
+                           @Value("${geocoding.requests-per-second:1}") double requestsPerSecond) {
+        this.mongoTemplate = mongoTemplate;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.rateLimiter = new TokenBucket((long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+    }
+
+    /**
+     * Coordonatele unei adrese; {@code found} este false dacă Nominatim nu a găsit nimic.
+     */
+    public GeocodeCacheEntry forward(String address) {
+        String normalized = normalizeAddress(address);
+        String key = "fwd:" + normalized;
+        return singleFlight(key, () -> {
+            JsonNode results = readTree(get("/search?format=json&limit=1&q=" + encode(normalized)));
+            if (!results.isArray() || results.isEmpty()) {
+                return new GeocodeCacheEntry(key, false, null, null, null, LocalDateTime.now());
+            }
+            JsonNode first = results.get(0);
+            return new GeocodeCacheEntry(key, true, first.get("lat").asDouble(), first.get("lon").asDouble(),
+                    first.path("display_name").asText(null), LocalDateTime.now());
+        });
+    }
+
+    /**
+     * Adresa pentru coordonate, rotunjite la ~100 m; punctele apropiate folosesc aceeași intrare.
+     */
+    public GeocodeCacheEntry reverse(double latitude, double longitude) {
+        double lat = Math.round(latitude * REVERSE_PRECISION) / REVERSE_PRECISION;
+        double lon = Math.round(longitude * REVERSE_PRECISION) / REVERSE_PRECISION;
+        String key = String.format(Locale.ROOT, "rev:%.3f,%.3f", lat, lon);
+        return singleFlight(key, () -> {
+            JsonNode root = readTree(get(String.format(Locale.ROOT, "/reverse?format=json&lat=%.3f&lon=%.3f", lat, lon)));
+            String displayName = root.path("display_name").asText(null);
+            return new GeocodeCacheEntry(key, displayName != null, lat, lon, displayName, LocalDateTime.now());
+        });
+    }
+
+    /**
+     * O cerere GET oarecare (cale relativă la URL-ul Nominatim, cu parametri), supusă limitei de rată.
+     */
+    public String get(String pathAndQuery) {
+        rateLimiter.acquire(MAX_QUEUE_WAIT_MS);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("User-Agent", USER_AGENT);
+        ResponseEntity<String> response = restTemplate.exchange(baseUrl + pathAndQuery, HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+            throw new IllegalStateException("Nominatim error: " + response.getStatusCode());
+        }
+        return response.getBody();
+    }
+
+    /**
+     * Caută întâi în cache; altfel un singur apelant face cererea, iar ceilalți care cer aceeași
+     * cheie în același timp așteaptă rezultatul lui.
+     */
+    private GeocodeCacheEntry singleFlight(String key, Supplier<GeocodeCacheEntry> loader) {
+        GeocodeCacheEntry stored = mongoTemplate.findById(key, GeocodeCacheEntry.class);
+        if (stored != null) {
+            return stored;
+        }
+        CompletableFuture<GeocodeCacheEntry> own = new CompletableFuture<>();
+        CompletableFuture<GeocodeCacheEntry> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            GeocodeCacheEntry entry = loader.get();
+            try {
+                mongoTemplate.insert(entry);
+            } catch (DuplicateKeyException e) {
+                // scris între timp de altă instanță
+            }
+            own.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return mapper.readTree(body);
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid Nominatim response", e);
+        }
+    }
+
+    static String normalizeAddress(String address) {
+        return address.trim().toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .replaceAll("\\s*,\\s*", ", ");
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Token bucket cu capacitate 1: fiecare cerere rezervă următorul moment liber și așteaptă
+     * până atunci. Dacă așteptarea ar depăși {@code maxWaitMs}, cererea este refuzată fără a
+     * ocupa un loc.
+     */
+    private static class TokenBucket {
+        private final long intervalNanos;
+        private long nextFreeNanos = System.nanoTime();
+
+        TokenBucket(long intervalNanos) {
+            this.intervalNanos = intervalNanos;
+        }
+
+        void acquire(long maxWaitMs) {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long slot = Math.max(now, nextFreeNanos);
+                waitNanos = slot - now;
+                if (waitNanos > TimeUnit.MILLISECONDS.toNanos(maxWaitMs)) {
+                    throw new IllegalStateException("Geocoding rate limit exceeded, try again later");
+                }
+                nextFreeNanos = slot + intervalNanos;
+            }
+            if (waitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for geocoding slot", e);
+                }
+            }
+        }
+    }
+}
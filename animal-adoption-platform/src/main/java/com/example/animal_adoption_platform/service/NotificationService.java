@@ -0,0 +1,325 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.dto.NotificationDTO;
+import com.example.animal_adoption_platform.event.AdoptionStatusChangedEvent;
+import com.example.animal_adoption_platform.event.CommentAddedEvent;
+import com.example.animal_adoption_platform.event.PostCreatedEvent;
+import com.example.animal_adoption_platform.model.Adoption;
+import com.example.animal_adoption_platform.model.Post;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fluxul de notificări în timp real (server-sent events).
+ * <p>
+ * Fiecare conexiune are o coadă limitată de evenimente de trimis; un client lent care o umple
+ * pierde evenimentele din coadă și primește în schimb un singur eveniment {@code summary}, după
+ * care își reîncarcă datele. Conexiunile inactive nu țin fire de execuție: un fir este ocupat doar
+ * cât timp există ceva de trimis. Scrierea blochează firul până când clientul primește datele, iar
+ * firele de trimitere sunt limitate: un client blocat mai mult de {@code WRITE_TIMEOUT_MS} este
+ * deconectat, la fel și un client a cărui trimitere nu mai încape în coada pool-ului. Ultimele
+ * evenimente sunt păstrate pentru reluare la reconectarea cu Last-Event-ID.
+ */
+@Service
+public class NotificationService {
+
+    public static final String POST_CREATED = "post.created";
+    public static final String POST_COMMENTED = "post.commented";
+    public static final String ADOPTION_STATUS = "adoption.status";
+    public static final String ANIMAL_MATCH = "animal.match";
+    public static final String SUMMARY = "summary";
+
+    private static final int REPLAY_BUFFER_SIZE = 100;
+    private static final int CLIENT_QUEUE_CAPACITY = 64;
+    private static final long EMITTER_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long WRITE_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private final MongoTemplate mongoTemplate;
+
+    // pornind de la ora curentă, id-urile rămân crescătoare și după o repornire
+    private final long firstSequence = System.currentTimeMillis();
+    private final AtomicLong sequence = new AtomicLong(firstSequence);
+    private final Map<String, Set<Client>> clientsByUser = new ConcurrentHashMap<>();
+    private final Map<String, ReplayBuffer> recentByUser = new ConcurrentHashMap<>();
+    private final ReplayBuffer recentBroadcast = new ReplayBuffer();
+    private final ThreadPoolExecutor sender;
+
+    public NotificationService(MongoTemplate mongoTemplate,
+                               @Value("${notifications.sender-threads:64}") int senderThreads,
+                               @Value("${notifications.sender-queue-capacity:4096}") int senderQueueCapacity) {
+        this.mongoTemplate = mongoTemplate;
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(senderQueueCapacity));
+        this.sender.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Deschide un flux pentru utilizator. Dacă {@code lastEventId} este dat, sunt retrimise întâi
+     * evenimentele pierdute; dacă acestea nu mai sunt în memorie, clientul primește un {@code summary}.
+     */
+    public SseEmitter subscribe(String userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Client client = new Client(userId, emitter);
+        emitter.onCompletion(() -> unregister(client));
+        emitter.onTimeout(() -> unregister(client));
+        emitter.onError(error -> unregister(client));
+
+        // clientul este înregistrat înainte de reluare, dar nu trimite nimic până când evenimentele
+        // pierdute și cele sosite între timp nu sunt puse în ordine
+        client.draining.set(true);
+        clientsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(client);
+        if (lastEventId != null) {
+            ReplayBuffer userBuffer = recentByUser.get(userId);
+            boolean complete = lastEventId >= firstSequence && recentBroadcast.covers(lastEventId)
+                    && (userBuffer == null || userBuffer.covers(lastEventId));
+            if (complete) {
+                TreeMap<Long, NotificationDTO> ordered = new TreeMap<>();
+                recentBroadcast.after(lastEventId).forEach(n -> ordered.put(n.getId(), n));
+                if (userBuffer != null) {
+                    userBuffer.after(lastEventId).forEach(n -> ordered.put(n.getId(), n));
+                }
+                // un eveniment deja în buffer poate ajunge în coada clientului și după citirea de
+                // mai sus; id-urile reluate sunt reținute ca o asemenea copie să fie ignorată
+                client.replayed.addAll(ordered.keySet());
+                List<NotificationDTO> live = new ArrayList<>();
+                client.queue.drainTo(live);
+                live.forEach(n -> {
+                    ordered.put(n.getId(), n);
+                    // a sosit deja prin coadă, deci nu mai vine o a doua copie
+                    client.replayed.remove(n.getId());
+                });
+                ordered.values().forEach(client::offer);
+            } else {
+                client.dropped.incrementAndGet();
+            }
+        }
+        client.draining.set(false);
+        client.scheduleDrain();
+        return emitter;
+    }
+
+    public void sendToUser(String userId, String type, Map<String, Object> data) {
+        if (userId == null) {
+            return;
+        }
+        NotificationDTO notification = newNotification(type, data);
+        recentByUser.computeIfAbsent(userId, id -> new ReplayBuffer()).add(notification);
+        Set<Client> clients = clientsByUser.get(userId);
+        if (clients != null) {
+            clients.forEach(client -> client.enqueue(notification));
+        }
+    }
+
+    public void broadcast(String type, Map<String, Object> data) {
+        NotificationDTO notification = newNotification(type, data);
+        recentBroadcast.add(notification);
+        clientsByUser.values().forEach(clients -> clients.forEach(client -> client.enqueue(notification)));
+    }
+
+    public int connectionCount() {
+        return clientsByUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @EventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        Post post = event.getPost();
+        Map<String, Object> data = new HashMap<>();
+        data.put("postId", post.getId());
+        data.put("userId", post.getUserId());
+        data.put("tag", post.getTag());
+        broadcast(POST_CREATED, data);
+    }
+
+    @EventListener
+    public void onCommentAdded(CommentAddedEvent event) {
+        Query query = new Query(Criteria.where("id").is(event.getPostId()));
+        query.fields().include("userId");
+        Post post = mongoTemplate.findOne(query, Post.class);
+        if (post == null || Objects.equals(post.getUserId(), event.getComment().getUserId())) {
+            return;
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("postId", event.getPostId());
+        data.put("userId", event.getComment().getUserId());
+        data.put("content", event.getComment().getContent());
+        sendToUser(post.getUserId(), POST_COMMENTED, data);
+    }
+
+    @EventListener
+    public void onAdoptionStatusChanged(AdoptionStatusChangedEvent event) {
+        Adoption adoption = event.getAdoption();
+        Map<String, Object> data = new HashMap<>();
+        data.put("adoptionId", adoption.getId());
+        data.put("animalId", adoption.getAnimalId());
+        data.put("status", adoption.getStatus());
+        data.put("previousStatus", event.getPreviousStatus());
+        sendToUser(adoption.getAdopterId(), ADOPTION_STATUS, data);
+        if (!Objects.equals(adoption.getUserId(), adoption.getAdopterId())) {
+            sendToUser(adoption.getUserId(), ADOPTION_STATUS, data);
+        }
+    }
+
+    /**
+     * Trimite un comentariu SSE conexiunilor fără trafic, ca proxy-urile să nu le închidă, și
+     * deconectează clienții a căror scriere este blocată de prea mult timp.
+     */
+    @Scheduled(fixedRateString = "${notifications.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        clientsByUser.values().forEach(clients -> clients.forEach(client -> {
+            long since = client.sendingSince;
+            if (since != 0 && now - since > WRITE_TIMEOUT_MS) {
+                unregister(client);
+                client.emitter.completeWithError(new IOException("SSE write timed out"));
+            } else {
+                client.heartbeat();
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clientsByUser.values().forEach(clients -> clients.forEach(client -> client.emitter.complete()));
+        sender.shutdownNow();
+    }
+
+    private NotificationDTO newNotification(String type, Map<String, Object> data) {
+        return new NotificationDTO(sequence.incrementAndGet(), type, data, LocalDateTime.now());
+    }
+
+    private void unregister(Client client) {
+        clientsByUser.computeIfPresent(client.userId, (id, clients) -> {
+            clients.remove(client);
+            return clients.isEmpty() ? null : clients;
+        });
+    }
+
+    private class Client {
+        final String userId;
+        final SseEmitter emitter;
+        final BlockingQueue<NotificationDTO> queue = new ArrayBlockingQueue<>(CLIENT_QUEUE_CAPACITY);
+        final AtomicInteger dropped = new AtomicInteger();
+        final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        final AtomicBoolean draining = new AtomicBoolean();
+        // id-urile puse în coadă din reluare; copia lor sosită ulterior de la publicator este ignorată
+        final Set<Long> replayed = ConcurrentHashMap.newKeySet();
+        // momentul începerii trimiterii în curs, 0 dacă nu se trimite nimic
+        volatile long sendingSince;
+
+        Client(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(NotificationDTO notification) {
+            if (!replayed.isEmpty() && replayed.remove(notification.getId())) {
+                return;
+            }
+            offer(notification);
+            scheduleDrain();
+        }
+
+        void offer(NotificationDTO notification) {
+            if (!queue.offer(notification)) {
+                // clientul nu ține pasul: coada se golește și se înlocuiește cu un singur summary
+                List<NotificationDTO> discarded = new ArrayList<>();
+                queue.drainTo(discarded);
+                dropped.addAndGet(discarded.size() + 1);
+            }
+        }
+
+        void heartbeat() {
+            if (queue.isEmpty()) {
+                heartbeatDue.set(true);
+                scheduleDrain();
+            }
+        }
+
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // pool-ul e saturat: clientul se reconectează și își reia evenimentele
+                    draining.set(false);
+                    unregister(this);
+                    emitter.completeWithError(new IOException("Notification sender saturated", e));
+                }
+            }
+        }
+
+        private void drain() {
+            sendingSince = System.currentTimeMillis();
+            try {
+                int droppedCount = dropped.getAndSet(0);
+                if (droppedCount > 0) {
+                    long latest = sequence.get();
+                    emitter.send(SseEmitter.event().id(String.valueOf(latest)).name(SUMMARY)
+                            .data(Map.of("dropped", droppedCount, "lastEventId", latest), MediaType.APPLICATION_JSON));
+                }
+                NotificationDTO notification;
+                while ((notification = queue.poll()) != null) {
+                    emitter.send(SseEmitter.event().id(String.valueOf(notification.getId()))
+                            .name(notification.getType()).data(notification, MediaType.APPLICATION_JSON));
+                }
+                if (heartbeatDue.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                unregister(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                sendingSince = 0;
+                draining.set(false);
+            }
+            if (!queue.isEmpty() || dropped.get() > 0) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    /**
+     * Ultimele {@code REPLAY_BUFFER_SIZE} evenimente, plus cel mai mare id scos din buffer,
+     * pentru a ști dacă o reconectare mai poate fi reluată fără pierderi.
+     */
+    private static class ReplayBuffer {
+        private final Deque<NotificationDTO> events = new ArrayDeque<>();
+        private long evictedUpTo;
+
+        synchronized void add(NotificationDTO notification) {
+            events.addLast(notification);
+            if (events.size() > REPLAY_BUFFER_SIZE) {
+                evictedUpTo = events.removeFirst().getId();
+            }
+        }
+
+        synchronized List<NotificationDTO> after(long lastEventId) {
+            List<NotificationDTO> result = new ArrayList<>();
+            for (NotificationDTO notification : events) {
+                if (notification.getId() > lastEventId) result.add(notification);
+            }
+            return result;
+        }
+
+        synchronized boolean covers(long lastEventId) {
+            return lastEventId >= evictedUpTo;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.model.ChatTurn;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modelul local servit de Ollama, prin {@link OllamaChatModel} configurat de starter-ul Spring AI
+ * (spring.ai.ollama.base-url, spring.ai.ollama.chat.options.model). Starter-ul creează modelul și
+ * fără configurare, cu valorile implicite, deci backend-ul este folosit doar cu
+ * {@code assistant.ollama.enabled=true}.
+ */
+@Component
+public class OllamaChatBackend implements ChatBackend {
+
+    public static final String NAME = "ollama";
+
+    private final OllamaChatModel chatModel;
+
+    public OllamaChatBackend(ObjectProvider<OllamaChatModel> chatModel,
+                             @Value("${assistant.ollama.enabled:false}") boolean enabled) {
+        this.chatModel = enabled ? chatModel.getIfAvailable() : null;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return chatModel != null;
+    }
+
+    @Override
+    public String complete(List<ChatTurn> messages) {
+        return textOf(chatModel.call(toPrompt(messages)));
+    }
+
+    @Override
+    public Flux<String> stream(List<ChatTurn> messages) {
+        return chatModel.stream(toPrompt(messages))
+                .map(OllamaChatBackend::textOf)
+                .filter(content -> !content.isEmpty());
+    }
+
+    private static Prompt toPrompt(List<ChatTurn> messages) {
+        List<Message> promptMessages = new ArrayList<>();
+        for (ChatTurn message : messages) {
+            if (ChatTurn.SYSTEM.equals(message.getRole())) {
+                promptMessages.add(new SystemMessage(message.getContent()));
+            } else if (ChatTurn.ASSISTANT.equals(message.getRole())) {
+                promptMessages.add(new AssistantMessage(message.getContent()));
+            } else {
+                promptMessages.add(new UserMessage(message.getContent()));
+            }
+        }
+        return new Prompt(promptMessages);
+    }
+
+    private static String textOf(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return "";
+        }
+        String text = response.getResult().getOutput().getText();
+        return text != null ? text : "";
+    }
+}
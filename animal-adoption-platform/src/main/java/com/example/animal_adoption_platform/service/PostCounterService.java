@@ -0,0 +1,199 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.model.Post;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aprecierile și distribuirile postărilor sunt adunate în memorie, pe celule {@link LongAdder}
+ * per postare, și scrise periodic în MongoDB cu un singur bulk de $inc. Astfel o postare foarte
+ * populară nu produce o scriere pe fiecare click, iar citirile adaugă delta încă nescrisă.
+ */
+@Service
+public class PostCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostCounterService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<String, PendingCounters> pending = new ConcurrentHashMap<>();
+
+    public PostCounterService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void like(String postId) {
+        add(postId, 1, 0);
+    }
+
+    public void unlike(String postId) {
+        add(postId, -1, 0);
+    }
+
+    public void share(String postId) {
+        add(postId, 0, 1);
+    }
+
+    /**
+     * Adaugă la postările citite din baza de date incrementurile care nu au fost încă scrise.
+     */
+    public List<Post> applyPending(List<Post> posts) {
+        for (Post post : posts) {
+            PendingCounters counters = pending.get(post.getId());
+            if (counters != null) {
+                post.setLikes((int) Math.max(0, post.getLikes() + counters.likes.sum()));
+                post.setShares((int) Math.max(0, post.getShares() + counters.shares.sum()));
+            }
+        }
+        return posts;
+    }
+
+    @Scheduled(fixedDelayString = "${posts.counters.flush-interval-ms:1000}")
+    public void flush() {
+        List<Delta> deltas = new ArrayList<>();
+        for (Map.Entry<String, PendingCounters> entry : pending.entrySet()) {
+            PendingCounters counters = entry.getValue();
+            if (collect(counters, deltas) || !counters.idle) {
+                counters.idle = true;
+            } else if (counters.retire()) {
+                pending.remove(entry.getKey(), counters);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            write(deltas);
+        } catch (Exception e) {
+            logger.warn("Could not flush post counters, retrying on next flush: {}", e.getMessage());
+            for (Delta delta : deltas) {
+                add(delta.postId, delta.likes, delta.shares);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Un bulk cu câte un update pe postare. Aprecierile scad cel mult până la zero: pentru o
+     * delta negativă se folosește un update cu pipeline care limitează rezultatul.
+     */
+    void write(List<Delta> deltas) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        for (Delta delta : deltas) {
+            Query query = new Query(Criteria.where("id").is(delta.postId));
+            if (delta.likes >= 0) {
+                bulk.updateOne(query, new Update().inc("likes", delta.likes).inc("shares", delta.shares));
+            } else {
+                AggregationExpression likes = ArithmeticOperators.valueOf(ConditionalOperators.ifNull("likes").then(0))
+                        .add(delta.likes);
+                bulk.updateOne(query, AggregationUpdate.update()
+                        .set("likes").toValue(ConditionalOperators.when(ComparisonOperators.valueOf(likes).greaterThanValue(0))
+                                .then(likes).otherwise(0))
+                        .set("shares").toValue(ArithmeticOperators.valueOf(ConditionalOperators.ifNull("shares").then(0))
+                                .add(delta.shares)));
+            }
+        }
+        bulk.execute();
+    }
+
+    /**
+     * O celulă este scoasă din map doar după ce a fost marcată retrasă și s-a verificat că e goală
+     * (vezi {@link PendingCounters#retire()}). Incrementul verifică marcajul după ce a scris: dacă
+     * celula fusese retrasă, își anulează scrierea și reîncearcă pe celula nouă din map, astfel că
+     * niciun increment nu rămâne într-o celulă pe care flush-ul n-o mai citește.
+     */
+    private void add(String postId, long likeDelta, long shareDelta) {
+        while (true) {
+            PendingCounters counters = pending.computeIfAbsent(postId, PendingCounters::new);
+            counters.add(likeDelta, shareDelta);
+            if (!counters.retired) {
+                counters.idle = false;
+                return;
+            }
+            counters.add(-likeDelta, -shareDelta);
+            // flush-ul o lasă în map dacă a văzut incrementul; altfel o scoate imediat
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Scade din celule exact valoarea citită, ca incrementurile concurente să rămână pentru
+     * următoarea scriere. Întoarce false dacă nu era nimic de scris.
+     */
+    private boolean collect(PendingCounters counters, List<Delta> deltas) {
+        long likes = counters.likes.sum();
+        long shares = counters.shares.sum();
+        if (likes == 0 && shares == 0) {
+            return false;
+        }
+        counters.add(-likes, -shares);
+        deltas.add(new Delta(counters.postId, likes, shares));
+        return true;
+    }
+
+    private static class PendingCounters {
+        final String postId;
+        final LongAdder likes = new LongAdder();
+        final LongAdder shares = new LongAdder();
+        volatile boolean idle;
+        volatile boolean retired;
+
+        PendingCounters(String postId) {
+            this.postId = postId;
+        }
+
+        /**
+         * Marcajul se scrie înaintea citirii sumelor, iar incrementul scrie înaintea citirii
+         * marcajului; deci fie flush-ul vede incrementul și renunță, fie incrementul vede marcajul.
+         */
+        boolean retire() {
+            retired = true;
+            if (likes.sum() == 0 && shares.sum() == 0) {
+                return true;
+            }
+            retired = false;
+            return false;
+        }
+
+        void add(long likeDelta, long shareDelta) {
+            likes.add(likeDelta);
+            shares.add(shareDelta);
+        }
+    }
+
+    static class Delta {
+        final String postId;
+        final long likes;
+        final long shares;
+
+        Delta(String postId, long likes, long shares) {
+            this.postId = postId;
+            this.likes = likes;
+            this.shares = shares;
+        }
+    }
+}
@@ -1,60 +1,142 @@
 package com.example.animal_adoption_platform.service;
 
 import com.example.animal_adoption_platform.dto.PostDTO;
+import com.example.animal_adoption_platform.dto.PostFeedPageDTO;
+import com.example.animal_adoption_platform.event.PostCreatedEvent;
 import com.example.animal_adoption_platform.model.Post;
+import com.example.animal_adoption_platform.repository.PartialUpdater;
 import com.example.animal_adoption_platform.repository.PostRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
 public class PostService {
     private final PostRepository postRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CommentService commentService;
+    private final PostCounterService postCounterService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PartialUpdater partialUpdater;
 
-    public PostService(PostRepository postRepository) {
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+    private static final Map<String, Function<Object, Object>> POST_FIELDS = Map.of(
+            "content", PartialUpdater.TEXT,
+            "imageUrl", PartialUpdater.TEXT,
+            "tag", PartialUpdater.TEXT);
+
+    public PostService(PostRepository postRepository, MongoTemplate mongoTemplate, CommentService commentService,
+                       PostCounterService postCounterService, ApplicationEventPublisher eventPublisher,
+                       PartialUpdater partialUpdater) {
         this.postRepository = postRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.commentService = commentService;
+        this.postCounterService = postCounterService;
+        this.eventPublisher = eventPublisher;
+        this.partialUpdater = partialUpdater;
     }
 
     public void createPost(PostDTO postDTO) {
         Post post = new Post();
+        post.setUserId(postDTO.getUserId());
         post.setContent(postDTO.getContent());
-        post.setCreatedAt(postDTO.getCreatedAt());
-        post.setComments(postDTO.getComments());
+        post.setCreatedAt(postDTO.getCreatedAt() != null ? postDTO.getCreatedAt() : LocalDateTime.now());
         post.setLikes(postDTO.getLikes());
         post.setImageUrl(postDTO.getImageUrl());
         post.setTag(postDTO.getTag());
-        postRepository.save(post);
+        Post saved = postRepository.save(post);
+        eventPublisher.publishEvent(new PostCreatedEvent(saved));
     }
 
     public void deletePost(String postId) {
         postRepository.deleteById(postId);
+        commentService.deleteComments(postId);
     }
 
     public void updatePost(String postId, String content) {
-        Post post = postRepository.findById(postId).get();
-        post.setContent(content);
-        postRepository.save(post);
-
+        updatePost(postId, Collections.singletonMap("content", content));
     }
 
-    public List<Post> getAllPosts(){
-        return postRepository.findAll();
+    /**
+     * Doar câmpurile modificate sunt scrise: un save al întregului document ar suprascrie
+     * contoarele și numărul de comentarii actualizate între timp.
+     */
+    public void updatePost(String postId, Map<String, ?> changes) {
+        if (!partialUpdater.patch(Post.class, postId, changes, POST_FIELDS)) {
+            throw new IllegalArgumentException("Post not found: " + postId);
+        }
+
     }
 
-    public List<Post> getLatestPosts(){
-        LocalDateTime now = LocalDateTime.now();
-        List<Post> posts = postRepository.findAll();
-        List<Post> latestPosts = new ArrayList<>();
-        for (Post post : posts) {
-            if(post.getCreatedAt().until(now, ChronoUnit.MONTHS) <= 3) {
-                latestPosts.add(post);
-            }
+    /**
+     * O pagină din feed, de la cele mai noi postări spre cele mai vechi. Paginarea continuă după
+     * ultima pereche (createdAt, id) văzută, deci costul unei pagini nu depinde de numărul total
+     * de postări.
+     */
+    public PostFeedPageDTO getFeed(String cursor, String tag, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+        List<Criteria> criteria = new ArrayList<>();
+        if (tag != null && !tag.isBlank()) {
+            criteria.add(Criteria.where("tag").is(tag));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            FeedCursor after = FeedCursor.decode(cursor);
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(after.createdAt),
+                    new Criteria().andOperator(
+                            Criteria.where("createdAt").is(after.createdAt),
+                            Criteria.where("id").lt(after.id))));
+        }
+
+        Query query = criteria.isEmpty()
+                ? new Query()
+                : new Query(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "id")).limit(pageSize + 1);
+        List<Post> posts = mongoTemplate.find(query, Post.class);
+
+        String nextCursor = null;
+        if (posts.size() > pageSize) {
+            posts = new ArrayList<>(posts.subList(0, pageSize));
+            Post last = posts.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
         }
-        return latestPosts;
+        return new PostFeedPageDTO(postCounterService.applyPending(posts), nextCursor);
     }
 
+    private static class FeedCursor {
+        final LocalDateTime createdAt;
+        final String id;
+
+        FeedCursor(LocalDateTime createdAt, String id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
 
+        static FeedCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new FeedCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid feed cursor");
+            }
+        }
+    }
 }
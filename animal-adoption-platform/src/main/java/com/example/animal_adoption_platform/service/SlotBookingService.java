@@ -0,0 +1,143 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.model.SlotReservation;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rezervarea intervalelor de vizită pentru adopții. Conflictele sunt rezolvate de MongoDB:
+ * o rezervare este un insert pe indexul unic (animalId, slotStart), deci dintre mai mulți
+ * adoptatori care cer același interval în același timp reușește exact unul, fără blocări în
+ * aplicație. Rezervările neconfirmate expiră după {@code HOLD_MINUTES}; indexul TTL le șterge,
+ * iar un insert care se lovește de o rezervare expirată încă neștearsă o înlocuiește.
+ */
+@Service
+public class SlotBookingService {
+
+    public static final int SLOT_MINUTES = 60;
+    public static final int OPENING_HOUR = 9;
+    public static final int CLOSING_HOUR = 17;
+    private static final long HOLD_MINUTES = 10;
+
+    private final MongoTemplate mongoTemplate;
+
+    public SlotBookingService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Intervalele libere ale unei zile pentru un animal.
+     */
+    public List<LocalDateTime> availableSlots(String animalId, LocalDate day) {
+        LocalDateTime from = day.atTime(OPENING_HOUR, 0);
+        LocalDateTime to = day.atTime(CLOSING_HOUR, 0);
+        LocalDateTime now = LocalDateTime.now();
+
+        Query query = new Query(Criteria.where("animalId").is(animalId).and("slotStart").gte(from).lt(to));
+        query.fields().include("slotStart", "status", "holdExpiresAt");
+        Set<LocalDateTime> taken = new HashSet<>();
+        for (SlotReservation reservation : mongoTemplate.find(query, SlotReservation.class)) {
+            if (isActive(reservation, now)) {
+                taken.add(reservation.getSlotStart());
+            }
+        }
+
+        List<LocalDateTime> slots = new ArrayList<>();
+        for (LocalDateTime slot = from; slot.isBefore(to); slot = slot.plusMinutes(SLOT_MINUTES)) {
+            if (slot.isAfter(now) && !taken.contains(slot)) {
+                slots.add(slot);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Reține temporar un interval pentru adoptator, până la programarea adopției.
+     *
+     * @throws IllegalStateException dacă intervalul este deja rezervat
+     */
+    public SlotReservation hold(String animalId, String adopterId, LocalDateTime requestedStart) {
+        LocalDateTime now = LocalDateTime.now();
+        return reserve(animalId, adopterId, requestedStart, SlotReservation.HELD, now.plusMinutes(HOLD_MINUTES));
+    }
+
+    /**
+     * Rezervă definitiv intervalul unei programări: confirmă rezervarea temporară a adoptatorului
+     * pentru acel interval, dacă există, altfel îl rezervă direct.
+     */
+    public SlotReservation reserveForAdoption(String animalId, String adopterId, LocalDateTime requestedStart) {
+        LocalDateTime slotStart = toSlotStart(requestedStart);
+        Query ownHold = new Query(Criteria.where("animalId").is(animalId).and("slotStart").is(slotStart)
+                .and("adopterId").is(adopterId).and("status").is(SlotReservation.HELD)
+                .and("holdExpiresAt").gt(LocalDateTime.now()));
+        SlotReservation confirmed = mongoTemplate.findAndModify(ownHold,
+                new Update().set("status", SlotReservation.CONFIRMED).unset("holdExpiresAt"),
+                FindAndModifyOptions.options().returnNew(true), SlotReservation.class);
+        if (confirmed != null) {
+            return confirmed;
+        }
+        return reserve(animalId, adopterId, slotStart, SlotReservation.CONFIRMED, null);
+    }
+
+    public void release(String reservationId, String adopterId) {
+        mongoTemplate.remove(new Query(Criteria.where("id").is(reservationId).and("adopterId").is(adopterId)),
+                SlotReservation.class);
+    }
+
+    private SlotReservation reserve(String animalId, String adopterId, LocalDateTime requestedStart,
+                                    String status, LocalDateTime holdExpiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime slotStart = toSlotStart(requestedStart);
+        if (!slotStart.isAfter(now)) {
+            throw new IllegalArgumentException("Slot is in the past: " + slotStart);
+        }
+        LocalTime time = slotStart.toLocalTime();
+        if (time.getHour() < OPENING_HOUR || time.getHour() >= CLOSING_HOUR) {
+            throw new IllegalArgumentException("Slot is outside visiting hours: " + slotStart);
+        }
+
+        SlotReservation reservation = new SlotReservation(null, animalId, adopterId, slotStart, status, holdExpiresAt, now);
+        try {
+            return mongoTemplate.insert(reservation);
+        } catch (DuplicateKeyException e) {
+            // intervalul poate fi ocupat doar de o rezervare temporară expirată pe care indexul TTL
+            // nu a șters-o încă; se șterge condiționat și se încearcă o singură dată din nou
+            long removed = mongoTemplate.remove(new Query(Criteria.where("animalId").is(animalId)
+                    .and("slotStart").is(slotStart).and("status").is(SlotReservation.HELD)
+                    .and("holdExpiresAt").lte(now)), SlotReservation.class).getDeletedCount();
+            if (removed == 0) {
+                throw new IllegalStateException("Slot already booked: " + slotStart);
+            }
+            try {
+                reservation.setId(null);
+                return mongoTemplate.insert(reservation);
+            } catch (DuplicateKeyException retry) {
+                throw new IllegalStateException("Slot already booked: " + slotStart);
+            }
+        }
+    }
+
+    private static LocalDateTime toSlotStart(LocalDateTime requested) {
+        LocalDateTime minute = requested.truncatedTo(ChronoUnit.MINUTES);
+        return minute.minusMinutes(minute.getMinute() % SLOT_MINUTES);
+    }
+
+    private static boolean isActive(SlotReservation reservation, LocalDateTime now) {
+        return !SlotReservation.HELD.equals(reservation.getStatus())
+                || (reservation.getHoldExpiresAt() != null && reservation.getHoldExpiresAt().isAfter(now));
+    }
+}
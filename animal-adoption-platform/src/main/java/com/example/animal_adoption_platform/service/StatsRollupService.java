@@ -0,0 +1,306 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.event.AdoptionDeletedEvent;
+import com.example.animal_adoption_platform.event.AdoptionStatusChangedEvent;
+import com.example.animal_adoption_platform.event.AnimalCreatedEvent;
+import com.example.animal_adoption_platform.event.AnimalDeletedEvent;
+import com.example.animal_adoption_platform.model.Adoption;
+import com.example.animal_adoption_platform.model.Animal;
+import com.example.animal_adoption_platform.model.AnimalEmbedding;
+import com.example.animal_adoption_platform.model.StatsRollup;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Statistici pe adăpost, specie și lună, citite doar din colecția {@code statsRollups}.
+ * Fiecare creare/ștergere de animal și fiecare schimbare de status a unei adopții actualizează
+ * într-un singur bulk bucket-ul lunii și bucket-ul {@code all}, atât pentru (adăpost, specie)
+ * cât și pentru totalul (*, *). La prima pornire, contoarele sunt reconstruite din colecțiile sursă.
+ * <p>
+ * {@code adoptionsByStatus} numără adopțiile existente după statusul curent, în luna creării
+ * adopției: o tranziție scade statusul anterior și îl crește pe cel nou, iar o adopție ștearsă își
+ * scade statusul. Astfel contoarele incrementale și {@link #rebuild()} au același înțeles.
+ */
+@Service
+public class StatsRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsRollupService.class);
+
+    public static final String ALL_PERIODS = "all";
+    public static final String ANY = "*";
+    private static final String UNKNOWN = "unknown";
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final MongoTemplate mongoTemplate;
+
+    public StatsRollupService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener
+    public void onAnimalCreated(AnimalCreatedEvent event) {
+        Animal animal = event.getAnimal();
+        record(LocalDateTime.now(), animal.getUserId(), animal.getSpecies(), "animalsAdded");
+    }
+
+    @EventListener
+    public void onAnimalDeleted(AnimalDeletedEvent event) {
+        Animal animal = event.getAnimal();
+        if (animal != null) {
+            record(LocalDateTime.now(), animal.getUserId(), animal.getSpecies(), "animalsRemoved");
+        }
+    }
+
+    @EventListener
+    public void onAdoptionStatusChanged(AdoptionStatusChangedEvent event) {
+        Adoption adoption = event.getAdoption();
+        String previousStatus = event.getPreviousStatus();
+        if (adoption.getStatus() == null || adoption.getStatus().equalsIgnoreCase(previousStatus)) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put("adoptionsByStatus." + statusKey(adoption.getStatus()), 1L);
+        if (previousStatus != null && !previousStatus.isBlank()) {
+            deltas.merge("adoptionsByStatus." + statusKey(previousStatus), -1L, Long::sum);
+        }
+        record(createdAt(adoption.getId()), adoption.getUserId(), speciesOf(adoption.getAnimalId()), deltas);
+    }
+
+    @EventListener
+    public void onAdoptionDeleted(AdoptionDeletedEvent event) {
+        Adoption adoption = event.getAdoption();
+        if (adoption.getStatus() == null || adoption.getStatus().isBlank()) {
+            return;
+        }
+        record(createdAt(adoption.getId()), adoption.getUserId(), event.getSpecies(),
+                Map.of("adoptionsByStatus." + statusKey(adoption.getStatus()), -1L));
+    }
+
+    public void embeddingAdded() {
+        incrementTotal("animalsWithEmbeddings", 1);
+    }
+
+    public void embeddingRemoved() {
+        incrementTotal("animalsWithEmbeddings", -1);
+    }
+
+    /**
+     * Bucket-urile lunare pentru adăpostul și specia date ({@code null} = toate), între lunile
+     * {@code from} și {@code to} inclusiv (format {@code yyyy-MM}).
+     */
+    public List<StatsRollup> findMonthly(String userId, String species, String from, String to) {
+        Criteria criteria = Criteria.where("userId").is(userId != null ? userId : ANY)
+                .and("species").is(species != null ? normalize(species) : ANY);
+        Criteria period = Criteria.where("period").ne(ALL_PERIODS);
+        if (from != null) period = period.gte(from);
+        if (to != null) period = period.lte(to);
+        Query query = new Query(new Criteria().andOperator(criteria, period));
+        query.with(Sort.by(Sort.Direction.ASC, "period"));
+        return mongoTemplate.find(query, StatsRollup.class);
+    }
+
+    /**
+     * Totalul peste toate lunile, adăposturile și speciile; null înainte de prima reconstruire.
+     */
+    public StatsRollup totals() {
+        return mongoTemplate.findById(id(ALL_PERIODS, ANY, ANY), StatsRollup.class);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfMissing() {
+        try {
+            StatsRollup totals = totals();
+            if (totals == null || totals.getBackfilledAt() == null) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            logger.warn("Could not backfill stats rollups: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reconstruiește toate contoarele din colecțiile {@code animals}, {@code adoptions} și
+     * {@code animalEmbeddings}. Luna unui document este cea din ObjectId-ul lui; pentru adopții se
+     * numără doar statusul curent, istoricul tranzițiilor nefiind păstrat. Evenimentele primite
+     * în timpul reconstruirii pot lipsi din rezultat, deci se rulează la pornire sau la cerere.
+     * <p>
+     * Bucket-urile existente sunt înlocuite pe loc (replace cu upsert), iar cele care nu mai au
+     * corespondent sunt șterse abia la final, astfel că cititorii nu văd niciodată colecția goală.
+     * Totalul, care poartă {@code backfilledAt}, este scris ultimul: dacă reconstruirea se
+     * întrerupe, următoarea pornire o reia.
+     */
+    public synchronized void rebuild() {
+        Map<String, StatsRollup> buckets = new HashMap<>();
+        Map<String, String> speciesByAnimal = new HashMap<>();
+
+        Query animals = new Query();
+        animals.fields().include("userId", "species");
+        try (Stream<Animal> stream = mongoTemplate.stream(animals, Animal.class)) {
+            stream.forEach(animal -> {
+                speciesByAnimal.put(animal.getId(), animal.getSpecies());
+                for (StatsRollup bucket : bucketsFor(buckets, createdAt(animal.getId()), animal.getUserId(), animal.getSpecies())) {
+                    bucket.setAnimalsAdded(bucket.getAnimalsAdded() + 1);
+                }
+            });
+        }
+
+        Query adoptions = new Query(Criteria.where("status").ne(null));
+        adoptions.fields().include("userId", "animalId", "status");
+        try (Stream<Adoption> stream = mongoTemplate.stream(adoptions, Adoption.class)) {
+            stream.forEach(adoption -> {
+                String key = statusKey(adoption.getStatus());
+                for (StatsRollup bucket : bucketsFor(buckets, createdAt(adoption.getId()), adoption.getUserId(),
+                        speciesByAnimal.get(adoption.getAnimalId()))) {
+                    bucket.getAdoptionsByStatus().merge(key, 1L, Long::sum);
+                }
+            });
+        }
+
+        StatsRollup total = buckets.remove(id(ALL_PERIODS, ANY, ANY));
+        if (total == null) {
+            total = newBucket(id(ALL_PERIODS, ANY, ANY), ALL_PERIODS, ANY, ANY);
+        }
+        total.setAnimalsWithEmbeddings(mongoTemplate.count(new Query(), AnimalEmbedding.class));
+
+        List<StatsRollup> pending = new ArrayList<>(buckets.values());
+        for (int start = 0; start < pending.size(); start += REBUILD_BATCH_SIZE) {
+            replaceAll(pending.subList(start, Math.min(pending.size(), start + REBUILD_BATCH_SIZE)));
+        }
+        Set<String> kept = new HashSet<>(buckets.keySet());
+        kept.add(total.getId());
+        mongoTemplate.remove(new Query(Criteria.where("id").nin(kept)), StatsRollup.class);
+
+        total.setBackfilledAt(LocalDateTime.now());
+        replaceAll(List.of(total));
+        logger.info("Stats rollups rebuilt: {} buckets", kept.size());
+    }
+
+    private void replaceAll(List<StatsRollup> rollups) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StatsRollup.class);
+        for (StatsRollup rollup : rollups) {
+            bulk.replaceOne(byId(rollup.getId()), rollup, FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+    }
+
+    private void record(LocalDateTime when, String userId, String species, String field) {
+        record(when, userId, species, Map.of(field, 1L));
+    }
+
+    /**
+     * Fără {@code when} (id care nu e ObjectId) se actualizează doar bucket-ul {@code all}, ca în
+     * {@link #rebuild()}.
+     */
+    private void record(LocalDateTime when, String userId, String species, Map<String, Long> deltas) {
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StatsRollup.class);
+            String shelter = userId != null ? userId : UNKNOWN;
+            String speciesKey = normalize(species);
+            List<String> periods = when != null ? List.of(MONTH.format(when), ALL_PERIODS) : List.of(ALL_PERIODS);
+            for (String period : periods) {
+                bulk.upsert(byId(id(period, shelter, speciesKey)), increment(deltas, period, shelter, speciesKey));
+                bulk.upsert(byId(id(period, ANY, ANY)), increment(deltas, period, ANY, ANY));
+            }
+            bulk.execute();
+        } catch (Exception e) {
+            // statisticile nu trebuie să blocheze operația care a produs evenimentul
+            logger.warn("Could not update stats rollups for {}: {}", deltas.keySet(), e.getMessage());
+        }
+    }
+
+    private String speciesOf(String animalId) {
+        if (animalId == null) {
+            return null;
+        }
+        Query query = new Query(Criteria.where("id").is(animalId));
+        query.fields().include("species");
+        Animal animal = mongoTemplate.findOne(query, Animal.class);
+        return animal != null ? animal.getSpecies() : null;
+    }
+
+    private void incrementTotal(String field, long delta) {
+        try {
+            mongoTemplate.upsert(byId(id(ALL_PERIODS, ANY, ANY)), increment(field, delta, ALL_PERIODS, ANY, ANY),
+                    StatsRollup.class);
+        } catch (Exception e) {
+            logger.warn("Could not update stats rollups for {}: {}", field, e.getMessage());
+        }
+    }
+
+    private static Update increment(String field, long delta, String period, String userId, String species) {
+        return increment(Map.of(field, delta), period, userId, species);
+    }
+
+    private static Update increment(Map<String, Long> deltas, String period, String userId, String species) {
+        Update update = new Update();
+        deltas.forEach(update::inc);
+        return update
+                .setOnInsert("period", period)
+                .setOnInsert("userId", userId)
+                .setOnInsert("species", species);
+    }
+
+    private static List<StatsRollup> bucketsFor(Map<String, StatsRollup> buckets, LocalDateTime when,
+                                                String userId, String species) {
+        String shelter = userId != null ? userId : UNKNOWN;
+        String speciesKey = normalize(species);
+        List<String> periods = when != null ? List.of(MONTH.format(when), ALL_PERIODS) : List.of(ALL_PERIODS);
+        List<StatsRollup> result = new ArrayList<>();
+        for (String period : periods) {
+            result.add(buckets.computeIfAbsent(id(period, shelter, speciesKey), id -> newBucket(id, period, shelter, speciesKey)));
+            result.add(buckets.computeIfAbsent(id(period, ANY, ANY), id -> newBucket(id, period, ANY, ANY)));
+        }
+        return result;
+    }
+
+    private static StatsRollup newBucket(String id, String period, String userId, String species) {
+        StatsRollup bucket = new StatsRollup();
+        bucket.setId(id);
+        bucket.setPeriod(period);
+        bucket.setUserId(userId);
+        bucket.setSpecies(species);
+        return bucket;
+    }
+
+    private static LocalDateTime createdAt(String id) {
+        if (id == null || !ObjectId.isValid(id)) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(new ObjectId(id).getDate().toInstant(), ZoneId.systemDefault());
+    }
+
+    private static String id(String period, String userId, String species) {
+        return period + "|" + userId + "|" + species;
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where("id").is(id));
+    }
+
+    private static String normalize(String species) {
+        return species == null || species.isBlank() ? UNKNOWN : species.trim().toLowerCase();
+    }
+
+    // numele câmpurilor MongoDB nu pot conține '.' și nu pot începe cu '$'
+    private static String statusKey(String status) {
+        return status.trim().toLowerCase().replace('.', '_').replace('$', '_');
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.animal_adoption_platform.service;
 
+import com.example.animal_adoption_platform.event.UserLocationChangedEvent;
 import com.example.animal_adoption_platform.model.User;
+import com.example.animal_adoption_platform.repository.PartialUpdater;
 import com.example.animal_adoption_platform.repository.UserRepository;
 import com.example.animal_adoption_platform.dto.UserDTO;
 import com.mongodb.client.model.geojson.Point;
 import com.mongodb.client.model.geojson.Position;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -13,18 +16,35 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
-
-    public UserService(UserRepository userRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final PartialUpdater partialUpdater;
+
+    private static final Map<String, Function<Object, Object>> USER_FIELDS = Map.of(
+            "name", PartialUpdater.TEXT,
+            "email", PartialUpdater.TEXT,
+            "password", PartialUpdater.TEXT,
+            "type", PartialUpdater.TEXT,
+            "contact", PartialUpdater.TEXT,
+            "location", PartialUpdater.GEO_POINT);
+
+    public UserService(UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                       PartialUpdater partialUpdater) {
         this.userRepository = userRepository;
         this.passwordEncoder = new BCryptPasswordEncoder();
+        this.eventPublisher = eventPublisher;
+        this.partialUpdater = partialUpdater;
     }
 
     public String registerUser(UserDTO user) {
@@ -55,42 +75,29 @@ public class UserService {
 
 
     public void updateUser(String id, String modifiedField, Object modifiedValue) {
-        Optional<User> existingUser = userRepository.findById(id);
-
-        if (existingUser.isPresent()) {
-            User user = existingUser.get();
-
-            switch (modifiedField) {
-                case "name":
-                    user.setName(modifiedValue.toString());
-                    break;
-                case "email":
-                    user.setEmail(modifiedValue.toString());
-                    break;
-                case "password":
-                    user.setPassword(modifiedValue.toString());
-                    break;
-                case "type":
-                    user.setType(modifiedValue.toString());
-                    break;
-                case "contact":
-                    user.setContact(modifiedValue.toString());
-                    break;
-                case "location":
-                    if (modifiedValue instanceof GeoJsonPoint) {
-                        user.setLocation((GeoJsonPoint) modifiedValue);
-                    } else {
-                        throw new IllegalArgumentException("Invalid location format");
-                    }
-                    break;
-                default:
-                    throw new IllegalArgumentException("Invalid field: " + modifiedField);
-            }
-
-            userRepository.save(user);
-        } else {
+        updateUser(id, Collections.singletonMap(modifiedField, modifiedValue));
+    }
+
+    /**
+     * Modifică unul sau mai multe câmpuri printr-un singur $set, fără a încărca utilizatorul.
+     */
+    public void updateUser(String id, Map<String, ?> changes) {
+        Map<String, Object> converted = new HashMap<>(changes);
+        if (converted.containsKey("password")) {
+            converted.put("password", passwordEncoder.encode(String.valueOf(converted.get("password"))));
+        }
+        GeoJsonPoint location = null;
+        if (converted.containsKey("location")) {
+            location = (GeoJsonPoint) PartialUpdater.GEO_POINT.apply(converted.get("location"));
+            converted.put("location", location);
+        }
+
+        if (!partialUpdater.patch(User.class, id, converted, USER_FIELDS)) {
             throw new RuntimeException("User not found with id: " + id);
         }
+        if (location != null) {
+            eventPublisher.publishEvent(new UserLocationChangedEvent(id, location));
+        }
     }
 
     public List<String> findUsersNearLocation(double latitude, double longitude, double radiusInKm) {
@@ -1,52 +1,116 @@
 package com.example.animal_adoption_platform.service;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 
-import com.azure.ai.inference.ChatCompletionsClient;
-import com.azure.ai.inference.ChatCompletionsClientBuilder;
-import com.azure.ai.inference.models.ChatCompletions;
-import com.azure.ai.inference.models.ChatCompletionsOptions;
-import com.azure.ai.inference.models.ChatRequestMessage;
-import com.azure.ai.inference.models.ChatRequestSystemMessage;
-import com.azure.ai.inference.models.ChatRequestUserMessage;
-import com.azure.core.credential.AzureKeyCredential;
+import com.example.animal_adoption_platform.model.ChatSession;
+import com.example.animal_adoption_platform.model.ChatTurn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 @Service
 public class VirtualAssistantService {
 
-    private final ChatCompletionsClient client;
-    private final String model;
+    private static final Logger logger = LoggerFactory.getLogger(VirtualAssistantService.class);
 
-    public VirtualAssistantService() {
-        String key =  APIKEY;
-        String endpoint = "https://models.inference.ai.azure.com";
-        this.model = "gpt-4o";
+    private static final ChatTurn SYSTEM_MESSAGE = new ChatTurn(ChatTurn.SYSTEM,
+            "Ești un asistent virtual al unei platforme de adopții de animale. " +
+            "Nu poți răspunde la întrebări care nu au legătură cu procesul de adopție sau detalii despre adopție și îngrijirea post-adopție." +
+            "De asemenea, evita raspunsurile foarte lungi si exprimarile care contin sintagme ca 'Sigur', 'Ma bucur ca ai intrebat'");
 
-        this.client = new ChatCompletionsClientBuilder()
-                .credential(new AzureKeyCredential(key))
-                .endpoint(endpoint)
-                .buildClient();
+    private final ChatBackendRouter router;
+    private final AssistantAnswerCache answerCache;
+    private final ConversationMemory conversationMemory;
+
+    public VirtualAssistantService(ChatBackendRouter router, AssistantAnswerCache answerCache,
+                                   ConversationMemory conversationMemory) {
+        this.router = router;
+        this.answerCache = answerCache;
+        this.conversationMemory = conversationMemory;
     }
 
     public String generateText(String prompt) {
-        List<ChatRequestMessage> chatMessages = Arrays.asList(
-                new ChatRequestSystemMessage("Ești un asistent virtual al unei platforme de adopții de animale. " +
-                        "Nu poți răspunde la întrebări care nu au legătură cu procesul de adopție sau detalii despre adopție și îngrijirea post-adopție." +
-                        "De asemenea, evita raspunsurile foarte lungi si exprimarile care contin sintagme ca 'Sigur', 'Ma bucur ca ai intrebat'"),
-                new ChatRequestUserMessage(prompt)
-        );
-
-        ChatCompletionsOptions chatCompletionsOptions = new ChatCompletionsOptions(chatMessages);
-        chatCompletionsOptions.setModel(model);
+        return generateText(null, prompt);
+    }
 
+    /**
+     * Răspunde în contextul sesiunii date (sau fără context dacă {@code sessionId} lipsește). Doar
+     * întrebările fără istoric folosesc cache-ul de răspunsuri, celelalte depinzând de conversație.
+     */
+    public String generateText(String sessionId, String prompt) {
+        ChatSession session = sessionId != null && !sessionId.isBlank() ? conversationMemory.get(sessionId) : null;
+        ConversationMemory.Snapshot history = session != null ? conversationMemory.snapshot(session) : null;
+        AssistantAnswerCache.Lookup cached = history == null || history.isEmpty() ? answerCache.lookup(prompt) : null;
+        if (cached != null && cached.isHit()) {
+            remember(session, prompt, cached.getAnswer());
+            return cached.getAnswer();
+        }
         try {
-            ChatCompletions completions = client.complete(chatCompletionsOptions);
-            return completions.getChoice().getMessage().getContent();
+            String answer = router.complete(buildMessages(history, prompt));
+            if (cached != null) answerCache.put(cached, answer);
+            remember(session, prompt, answer);
+            return answer;
         } catch (Exception e) {
-            System.err.println("Error generating text: " + e.getMessage());
+            logger.error("Error generating text", e);
             return "Sorry, I couldn't process your request at the moment.";
         }
     }
-}
\ No newline at end of file
+
+    public Flux<String> streamText(String prompt) {
+        return streamText(null, prompt);
+    }
+
+    /**
+     * Răspunsul în fragmente, pe măsură ce modelul le generează. Cererea către model este închisă
+     * când abonamentul este anulat (de exemplu la deconectarea clientului). Un răspuns din cache este
+     * trimis ca un singur fragment; un răspuns complet primit de la model este adăugat în cache
+     * și în conversație.
+     */
+    public Flux<String> streamText(String sessionId, String prompt) {
+        return Flux.defer(() -> {
+            ChatSession session = sessionId != null && !sessionId.isBlank() ? conversationMemory.get(sessionId) : null;
+            ConversationMemory.Snapshot history = session != null ? conversationMemory.snapshot(session) : null;
+            AssistantAnswerCache.Lookup cached = history == null || history.isEmpty() ? answerCache.lookup(prompt) : null;
+            if (cached != null && cached.isHit()) {
+                remember(session, prompt, cached.getAnswer());
+                return Flux.just(cached.getAnswer());
+            }
+            StringBuilder answer = new StringBuilder();
+            return router.stream(buildMessages(history, prompt))
+                    .doOnNext(answer::append)
+                    .doOnComplete(() -> {
+                        if (cached != null) answerCache.put(cached, answer.toString());
+                        remember(session, prompt, answer.toString());
+                    });
+        });
+    }
+
+    public void endSession(String sessionId) {
+        conversationMemory.delete(sessionId);
+    }
+
+    private void remember(ChatSession session, String prompt, String answer) {
+        if (session != null && answer != null) {
+            conversationMemory.record(session, prompt, answer);
+        }
+    }
+
+    /**
+     * Mesajul de sistem (același la fiecare cerere, deci prefixul cererii rămâne identic), rezumatul
+     * replicilor vechi, replicile recente și întrebarea curentă.
+     */
+    private List<ChatTurn> buildMessages(ConversationMemory.Snapshot history, String prompt) {
+        List<ChatTurn> chatMessages = new ArrayList<>();
+        chatMessages.add(SYSTEM_MESSAGE);
+        if (history != null) {
+            if (history.getSummary() != null) {
+                chatMessages.add(new ChatTurn(ChatTurn.SYSTEM, "Întrebări anterioare din această conversație:\n" + history.getSummary()));
+            }
+            chatMessages.addAll(history.getTurns());
+        }
+        chatMessages.add(new ChatTurn(ChatTurn.USER, prompt));
+        return chatMessages;
+    }
+}
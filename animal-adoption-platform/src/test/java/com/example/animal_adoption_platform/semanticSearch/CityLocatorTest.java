@@ -0,0 +1,24 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CityLocatorTest {
+
+    private final CityLocator locator = new CityLocator();
+
+    @Test
+    void resolvesFullNamesWithAndWithoutDiacritics() {
+        assertEquals("bucuresti", locator.keyOf("București"));
+        assertEquals("cluj-napoca", locator.keyOf("cluj napoca"));
+    }
+
+    @Test
+    void resolvesOnlyListedShortNames() {
+        assertEquals("cluj-napoca", locator.keyOf("Cluj"));
+        assertEquals("drobeta-turnu severin", locator.keyOf("Turnu Severin"));
+        // prefixul unui nume compus nu devine alias
+        assertNull(locator.find("popesti"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalityKdTreeTest {
+
+    private static final int LOCALITIES = 100_000;
+    private static final int QUERIES = 2_000;
+
+    @Test
+    void nearestMatchesBruteForce() {
+        Random random = new Random(7);
+        List<Locality> localities = new ArrayList<>();
+        for (int i = 0; i < LOCALITIES; i++) {
+            localities.add(locality(i, 43.5 + random.nextDouble() * 5, 20.2 + random.nextDouble() * 9.5));
+        }
+        LocalityKdTree tree = new LocalityKdTree(localities);
+        assertEquals(LOCALITIES, tree.size());
+
+        for (int q = 0; q < QUERIES; q++) {
+            // și puncte din afara zonei acoperite
+            double latitude = 42.5 + random.nextDouble() * 7;
+            double longitude = 19 + random.nextDouble() * 12;
+            Locality expected = bruteForce(localities, latitude, longitude);
+            Locality actual = tree.nearest(latitude, longitude);
+            assertEquals(distance(expected, latitude, longitude), distance(actual, latitude, longitude), 1e-9,
+                    "query " + latitude + "," + longitude);
+        }
+    }
+
+    /**
+     * Două localități pe același meridian, la un grad de latitudine. Punctul de interogare e la
+     * ~69 km de cea sudică și ~88 km de cea nordică; o proiecție care scalează longitudinea cu
+     * cosinusul latitudinii fiecărui punct ar alege-o pe cea nordică.
+     */
+    @Test
+    void choosesTheCloserLocalityOnTheGlobe() {
+        Locality south = locality(0, 45.0, 25.0);
+        Locality north = locality(1, 46.0, 25.0);
+        LocalityKdTree tree = new LocalityKdTree(List.of(south, north));
+
+        assertTrue(distance(south, 45.38, 24.3) < distance(north, 45.38, 24.3));
+        assertSame(south, tree.nearest(45.38, 24.3));
+    }
+
+    @Test
+    void handlesEmptyAndSingleElementTrees() {
+        assertNull(new LocalityKdTree(List.of()).nearest(45, 25));
+        Locality only = locality(0, 46, 24);
+        assertSame(only, new LocalityKdTree(List.of(only)).nearest(44, 28));
+    }
+
+    @Test
+    void findsExactPointsAmongDuplicates() {
+        List<Locality> localities = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            localities.add(locality(i, 45 + (i % 10) * 0.1, 25 + (i / 100) * 0.1));
+        }
+        LocalityKdTree tree = new LocalityKdTree(localities);
+        for (Locality locality : localities) {
+            assertEquals(0, distance(tree.nearest(locality.getLatitude(), locality.getLongitude()),
+                    locality.getLatitude(), locality.getLongitude()), 1e-6);
+        }
+    }
+
+    private static Locality bruteForce(List<Locality> localities, double latitude, double longitude) {
+        Locality best = null;
+        double bestDistance = Double.MAX_VALUE;
+        for (Locality locality : localities) {
+            double distance = distance(locality, latitude, longitude);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = locality;
+            }
+        }
+        return best;
+    }
+
+    // referința este distanța reală pe glob, independentă de reprezentarea din arbore
+    private static double distance(Locality locality, double latitude, double longitude) {
+        return GeoDistance.haversine(latitude, longitude, locality.getLatitude(), locality.getLongitude());
+    }
+
+    private static Locality locality(int i, double latitude, double longitude) {
+        return new Locality("l" + i, "L" + i, "county", latitude, longitude, 0);
+    }
+}
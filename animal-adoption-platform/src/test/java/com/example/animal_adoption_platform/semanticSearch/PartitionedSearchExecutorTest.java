@@ -0,0 +1,133 @@
+package com.example.animal_adoption_platform.semanticSearch;
+
+import com.example.animal_adoption_platform.event.AnimalSavedEvent;
+import com.example.animal_adoption_platform.model.Animal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedSearchExecutorTest {
+
+    private static final double[][] CITIES = {
+            {46.7712, 23.6236},  // Cluj-Napoca
+            {47.1585, 27.6014},  // Iași
+            {44.4268, 26.1025},  // București
+            {45.7537, 21.2257}}; // Timișoara
+    private static final String[] WORDS = {"caine", "pisica", "jucaus", "blând", "tanar", "batran", "sterilizat", "vaccinat"};
+    private static final int DIMENSIONS = 16;
+
+    private final Random random = new Random(42);
+    private final AnimalOrdinals animalOrdinals = new AnimalOrdinals();
+    private PartitionedSearchExecutor executor;
+    // același conținut într-o singură partiție, ca referință
+    private SearchPartition reference;
+    private final Map<String, Animal> animals = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        executor = new PartitionedSearchExecutor();
+        ReflectionTestUtils.setField(executor, "animalOrdinals", animalOrdinals);
+        ReflectionTestUtils.setField(executor, "cityLocator", new CityLocator());
+        reference = new SearchPartition("all");
+
+        for (int i = 0; i < 400; i++) {
+            double[] city = CITIES[i % CITIES.length];
+            Animal animal = new Animal();
+            animal.setId("animal-" + i);
+            animal.setName("Animal " + i);
+            animal.setSpecies(WORDS[random.nextInt(2)]);
+            animal.setDescription(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]);
+            animal.setEmbeddings(randomVector());
+            animal.setLocation(new GeoJsonPoint(city[1] + random.nextGaussian() * 0.005, city[0] + random.nextGaussian() * 0.005));
+            save(animal);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void keepsOnePartitionPerRegion() {
+        Map<String, Integer> sizes = executor.partitionSizes();
+        assertEquals(CITIES.length, sizes.size());
+        sizes.values().forEach(size -> assertEquals(100, size));
+    }
+
+    @Test
+    void scatterGatherMatchesSinglePartition() {
+        for (int q = 0; q < 50; q++) {
+            List<Float> query = randomVector();
+            String text = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            assertEquals(expected(query, text, null, 10), ordinals(executor.search(query, text, null, 10)));
+        }
+    }
+
+    @Test
+    void restrictedQueryMatchesSinglePartition() {
+        RoaringBitmap oneCity = new RoaringBitmap();
+        RoaringBitmap twoCities = new RoaringBitmap();
+        for (int i = 0; i < 400; i++) {
+            int ordinal = animalOrdinals.find("animal-" + i);
+            if (i % CITIES.length == 0) oneCity.add(ordinal);
+            if (i % CITIES.length < 2) twoCities.add(ordinal);
+        }
+        for (RoaringBitmap allowed : List.of(oneCity, twoCities)) {
+            List<Float> query = randomVector();
+            List<Integer> hits = ordinals(executor.search(query, "pisica", allowed, 20));
+            assertEquals(expected(query, "pisica", allowed, 20), hits);
+            hits.forEach(ordinal -> assertTrue(allowed.contains(ordinal)));
+        }
+    }
+
+    @Test
+    void movesAnimalWhenItsRegionChanges() {
+        Animal animal = animals.get("animal-0");
+        double[] city = CITIES[1];
+        animal.setLocation(new GeoJsonPoint(city[1], city[0]));
+        save(animal);
+
+        Collection<Integer> sizes = executor.partitionSizes().values();
+        assertEquals(400, sizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(sizes.contains(99));
+        assertTrue(sizes.contains(101));
+
+        List<Float> query = animal.getEmbeddings();
+        assertEquals(expected(query, "", null, 5), ordinals(executor.search(query, "", null, 5)));
+    }
+
+    private void save(Animal animal) {
+        animals.put(animal.getId(), animal);
+        executor.onAnimalSaved(new AnimalSavedEvent(animal));
+        reference.put(animalOrdinals.ordinalOf(animal.getId()), animal.getEmbeddings(),
+                animal.getName(), animal.getSpecies(), animal.getDescription());
+    }
+
+    private List<Integer> expected(List<Float> query, String text, RoaringBitmap allowed, int k) {
+        List<SearchPartition.Hit> hits = reference.search(SearchPartition.toUnitVector(query),
+                SearchPartition.tokenize(text), allowed, k);
+        hits.sort((a, b) -> Float.compare(b.getScore(), a.getScore()));
+        return ordinals(hits);
+    }
+
+    private static List<Integer> ordinals(List<SearchPartition.Hit> hits) {
+        return hits.stream().map(SearchPartition.Hit::getOrdinal).collect(Collectors.toList());
+    }
+
+    private List<Float> randomVector() {
+        List<Float> vector = new ArrayList<>();
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector.add((float) random.nextGaussian());
+        }
+        return vector;
+    }
+}
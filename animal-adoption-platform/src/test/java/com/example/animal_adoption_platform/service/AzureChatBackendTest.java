@@ -0,0 +1,114 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.model.ChatTurn;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Modelul este înlocuit de un server local care răspunde ca endpoint-ul {@code /chat/completions}:
+ * JSON pentru cererile obișnuite și server-sent events pentru cele cu {@code stream: true}.
+ */
+class AzureChatBackendTest {
+
+    private static final String COMPLETION = """
+            {"id":"c1","object":"chat.completion","created":1700000000,"model":"gpt-4o",
+             "choices":[{"index":0,"finish_reason":"stop","message":{"role":"assistant","content":"Bună ziua!"}}]}
+            """;
+
+    // primul fragment are doar rolul, ultimul doar finish_reason (fără delta), iar cel de utilizare nu are choices
+    private static final List<String> CHUNKS = List.of(
+            chunk("{\"index\":0,\"delta\":{\"role\":\"assistant\",\"content\":\"\"},\"finish_reason\":null}"),
+            chunk("{\"index\":0,\"delta\":{\"content\":\"Bună\"},\"finish_reason\":null}"),
+            chunk("{\"index\":0,\"delta\":{\"content\":\" ziua\"},\"finish_reason\":null}"),
+            chunk("{\"index\":0,\"delta\":{\"content\":\"!\"},\"finish_reason\":null}"),
+            chunk("{\"index\":0,\"finish_reason\":\"stop\"}"),
+            "{\"id\":\"c1\",\"object\":\"chat.completion.chunk\",\"created\":1700000000,\"model\":\"gpt-4o\","
+                    + "\"choices\":[],\"usage\":{\"prompt_tokens\":5,\"completion_tokens\":3,\"total_tokens\":8}}");
+
+    private HttpServer server;
+    private final AtomicReference<String> lastRequest = new AtomicReference<>();
+    private AzureChatBackend backend;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        backend = new AzureChatBackend("http://localhost:" + server.getAddress().getPort(), "gpt-4o");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void completeReturnsTheMessageContent() {
+        String answer = backend.complete(List.of(
+                new ChatTurn(ChatTurn.SYSTEM, "Ești asistentul unui adăpost."),
+                new ChatTurn(ChatTurn.USER, "Salut")));
+
+        assertEquals("Bună ziua!", answer);
+        assertTrue(lastRequest.get().contains("\"model\":\"gpt-4o\""));
+        assertTrue(lastRequest.get().contains("\"role\":\"system\""));
+    }
+
+    @Test
+    void streamSkipsChunksWithoutDeltaOrContent() {
+        List<String> tokens = backend.stream(List.of(new ChatTurn(ChatTurn.USER, "Salut")))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(List.of("Bună", " ziua", "!"), tokens);
+        assertTrue(lastRequest.get().contains("\"stream\":true"));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        lastRequest.set(body);
+        if (!exchange.getRequestURI().getPath().endsWith("/chat/completions")) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+
+        if (body.contains("\"stream\":true")) {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream output = exchange.getResponseBody()) {
+                for (String chunk : CHUNKS) {
+                    output.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+                    output.flush();
+                }
+                output.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            }
+        } else {
+            byte[] bytes = COMPLETION.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        }
+    }
+
+    private static String chunk(String choice) {
+        return "{\"id\":\"c1\",\"object\":\"chat.completion.chunk\",\"created\":1700000000,\"model\":\"gpt-4o\","
+                + "\"choices\":[" + choice + "]}";
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.model.GeocodeCacheEntry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Nominatim este înlocuit de un {@link HttpServer} local care numără cererile și răspunde cu
+ * întârziere, ca cererile concurente să se suprapună.
+ */
+class NominatimClientTest {
+
+    private static final String SEARCH_RESPONSE =
+            "[{\"lat\":\"46.7712\",\"lon\":\"23.6236\",\"display_name\":\"Cluj-Napoca, Cluj, România\"}]";
+
+    private HttpServer server;
+    private final AtomicInteger searches = new AtomicInteger();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/search", exchange -> {
+            searches.incrementAndGet();
+            sleep(500);
+            respond(exchange, SEARCH_RESPONSE);
+        });
+        server.createContext("/status", exchange -> respond(exchange, "OK"));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        when(mongoTemplate.findById(anyString(), eq(GeocodeCacheEntry.class))).thenReturn(null);
+        when(mongoTemplate.insert(any(GeocodeCacheEntry.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void concurrentIdenticalLookupsShareOneRequest() throws Exception {
+        NominatimClient client = client(1);
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<GeocodeCacheEntry>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            // aceeași adresă scrisă diferit ajunge la aceeași cheie
+            String address = i % 2 == 0 ? "Cluj-Napoca, Cluj" : "  cluj-napoca ,cluj ";
+            results.add(pool.submit(() -> {
+                start.await();
+                return client.forward(address);
+            }));
+        }
+        start.countDown();
+
+        for (Future<GeocodeCacheEntry> result : results) {
+            GeocodeCacheEntry entry = result.get(10, TimeUnit.SECONDS);
+            assertTrue(entry.isFound());
+            assertEquals(46.7712, entry.getLatitude(), 1e-9);
+        }
+        pool.shutdown();
+        assertEquals(1, searches.get());
+        verify(mongoTemplate, times(1)).insert(any(GeocodeCacheEntry.class));
+    }
+
+    @Test
+    void cachedEntriesSkipTheNetwork() {
+        GeocodeCacheEntry cached = new GeocodeCacheEntry("fwd:cluj-napoca, cluj", true, 46.7712, 23.6236,
+                "Cluj-Napoca", null);
+        when(mongoTemplate.findById(eq("fwd:cluj-napoca, cluj"), eq(GeocodeCacheEntry.class))).thenReturn(cached);
+
+        assertSame(cached, client(1).forward("Cluj-Napoca, Cluj"));
+        assertEquals(0, searches.get());
+    }
+
+    @Test
+    void rejectsRequestsThatWouldWaitLongerThanTenSeconds() {
+        // o cerere la 20 s: a doua ar trebui să aștepte peste limita de 10 s
+        NominatimClient client = client(0.05);
+        assertEquals("OK", client.get("/status"));
+
+        long started = System.nanoTime();
+        IllegalStateException rejected = assertThrows(IllegalStateException.class, () -> client.get("/status"));
+        assertTrue(rejected.getMessage().contains("rate limit"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 1_000, "rejection must not wait");
+    }
+
+    @Test
+    void spacesRequestsAccordingToTheConfiguredRate() {
+        NominatimClient client = client(5);
+        long started = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            assertEquals("OK", client.get("/status"));
+        }
+        // prima pleacă imediat, următoarele la câte 200 ms
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 550);
+    }
+
+    private NominatimClient client(double requestsPerSecond) {
+        return new NominatimClient(mongoTemplate, "http://localhost:" + server.getAddress().getPort() + "/",
+                requestsPerSecond);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
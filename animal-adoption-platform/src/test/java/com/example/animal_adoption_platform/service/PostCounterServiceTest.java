@@ -0,0 +1,176 @@
+package com.example.animal_adoption_platform.service;
+
+import com.example.animal_adoption_platform.model.Post;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostCounterServiceTest {
+
+    /**
+     * Scrierile sunt adunate în memorie în loc de MongoDB; {@code failWrites} simulează o eroare.
+     */
+    private static class RecordingCounterService extends PostCounterService {
+        final Map<String, AtomicLong> likes = new ConcurrentHashMap<>();
+        final Map<String, AtomicLong> shares = new ConcurrentHashMap<>();
+        volatile boolean failWrites;
+
+        RecordingCounterService() {
+            super(null);
+        }
+
+        @Override
+        void write(List<Delta> deltas) {
+            if (failWrites) {
+                throw new IllegalStateException("write failed");
+            }
+            for (Delta delta : deltas) {
+                likes.computeIfAbsent(delta.postId, id -> new AtomicLong()).addAndGet(delta.likes);
+                shares.computeIfAbsent(delta.postId, id -> new AtomicLong()).addAndGet(delta.shares);
+            }
+        }
+
+        long likes(String postId) {
+            AtomicLong value = likes.get(postId);
+            return value != null ? value.get() : 0;
+        }
+
+        long shares(String postId) {
+            AtomicLong value = shares.get(postId);
+            return value != null ? value.get() : 0;
+        }
+    }
+
+    private final RecordingCounterService service = new RecordingCounterService();
+
+    @Test
+    void flushWritesAccumulatedDeltas() {
+        service.like("p1");
+        service.like("p1");
+        service.unlike("p1");
+        service.share("p1");
+        service.like("p2");
+
+        service.flush();
+
+        assertEquals(1, service.likes("p1"));
+        assertEquals(1, service.shares("p1"));
+        assertEquals(1, service.likes("p2"));
+
+        service.flush();
+        assertEquals(1, service.likes("p1"), "a second flush has nothing new to write");
+    }
+
+    @Test
+    void applyPendingAddsUnwrittenDeltasWithoutGoingNegative() {
+        service.like("p1");
+        service.like("p1");
+        service.unlike("p2");
+
+        Post liked = new Post();
+        liked.setId("p1");
+        liked.setLikes(3);
+        Post unliked = new Post();
+        unliked.setId("p2");
+        unliked.setLikes(0);
+
+        service.applyPending(List.of(liked, unliked));
+
+        assertEquals(5, liked.getLikes());
+        assertEquals(0, unliked.getLikes());
+    }
+
+    @Test
+    void failedWriteIsRetriedOnNextFlush() {
+        service.like("p1");
+        service.share("p1");
+        service.failWrites = true;
+        service.flush();
+        assertEquals(0, service.likes("p1"));
+
+        service.failWrites = false;
+        service.like("p1");
+        service.flush();
+
+        assertEquals(2, service.likes("p1"));
+        assertEquals(1, service.shares("p1"));
+    }
+
+    @Test
+    void idleCellsAreRetiredAndRecreated() {
+        service.like("p1");
+        service.flush();
+        // a doua rulare marchează celula goală, a treia o retrage
+        service.flush();
+        service.flush();
+
+        service.like("p1");
+        service.flush();
+
+        assertEquals(2, service.likes("p1"));
+    }
+
+    /**
+     * Flush-uri continue în paralel cu incrementuri rare pe multe postări, ca celulele să fie
+     * retrase și recreate des; niciun increment nu trebuie pierdut.
+     */
+    @Test
+    void concurrentIncrementsSurviveRetirement() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        int posts = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Thread flusher = new Thread(() -> {
+            while (running.get()) {
+                service.flush();
+            }
+        });
+        flusher.start();
+
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    String postId = "p" + ((seed + i) % posts);
+                    service.like(postId);
+                    if (i % 3 == 0) {
+                        service.share(postId);
+                    }
+                    if (i % 64 == 0) {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        running.set(false);
+        flusher.join();
+        service.flush();
+
+        long totalLikes = 0;
+        long totalShares = 0;
+        for (int p = 0; p < posts; p++) {
+            totalLikes += service.likes("p" + p);
+            totalShares += service.shares("p" + p);
+        }
+        assertEquals((long) threads * perThread, totalLikes);
+        assertEquals((long) threads * ((perThread + 2) / 3), totalShares);
+    }
+}
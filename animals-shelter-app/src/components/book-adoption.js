@@ -166,10 +166,11 @@ export default function AdoptionBooking() {
         })
     }, [])
 
-    const timeOptions = Array.from({ length: 10 }, (_, i) => {
-        const hour = 10 + i
+    // intervalele de vizită acceptate de server: din oră în oră, 9:00 - 16:00
+    const timeOptions = Array.from({ length: 8 }, (_, i) => {
+        const hour = 9 + i
         return {
-            value: `${hour}:00`,
+            value: `${String(hour).padStart(2, "0")}:00`,
             label: `${hour}:00`,
         }
     })
@@ -211,7 +212,6 @@ export default function AdoptionBooking() {
 
         try {
             const selectedDate = parseISO(date)
-            const [hours, minutes] = time.split(":").map(Number)
 
             const adoptionDTO = {
                 adopterId: adopterId,
@@ -219,7 +219,7 @@ export default function AdoptionBooking() {
                 animalId: animalId,
                 status: "initializat",
                 type: "adoptie permanenta",
-                adoptionDate: `${format(selectedDate, "yyyy-MM-dd")}T${hours}:${minutes}:00`,
+                scheduledDate: `${format(selectedDate, "yyyy-MM-dd")}T${time}:00`,
             }
 
             console.log("Sending adoption request:", adoptionDTO)
@@ -238,6 +238,8 @@ export default function AdoptionBooking() {
                 console.log("Adoption created successfully")
                 const formattedDate = format(selectedDate, "dd MMMM yyyy", { locale: ro })
                 setMessage(`Ai programat adopția pe ${formattedDate} la ora ${time}.`)
+            } else if (response.status === 409) {
+                setMessage("Intervalul ales nu mai este liber sau animalul are deja o cerere de adopție în curs.")
             } else {
                 const errorText = await response.text()
                 console.error("Server error response:", errorText)
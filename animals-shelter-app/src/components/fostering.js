@@ -171,7 +171,7 @@ export default function FosteringBooking() {
                 animalId,
                 status: "initializat",
                 type: "fostering",
-                fosteringStartDate: format(selectedDate, "yyyy-MM-dd"),
+                scheduledDate: `${format(selectedDate, "yyyy-MM-dd")}T00:00:00`,
                 period: period,
             }
 
@@ -15,6 +15,9 @@ export default function AdoptionChatbot() {
 
     const generateId = () => Math.random().toString(36).substring(2, 10)
 
+    // aceeași sesiune pentru toată conversația, ca asistentul să țină minte mesajele anterioare
+    const sessionIdRef = useRef(generateId() + generateId())
+
     useEffect(() => {
         if (hasInitialized && messagesEndRef.current) {
             messagesEndRef.current.scrollIntoView({ behavior: "smooth" })
@@ -46,25 +49,64 @@ export default function AdoptionChatbot() {
         })
     }
 
-    const sendMessageToBackend = async (userMessage) => {
-        try {
-            const response = await fetch("http://localhost:8083/chat", {
+    // Citește răspunsul de la /chat/stream (server-sent events) și apelează onToken pentru fiecare fragment.
+    const streamMessageFromBackend = async (userMessage, onToken) => {
+        const response = await fetch(
+            `http://localhost:8083/chat/stream?sessionId=${encodeURIComponent(sessionIdRef.current)}`,
+            {
                 method: "POST",
                 headers: {
                     "Content-Type": "text/plain",
+                    Accept: "text/event-stream",
                 },
                 body: userMessage,
-            })
+            },
+        )
 
-            if (!response.ok) {
-                throw new Error(`Error: ${response.status}`)
+        if (!response.ok || !response.body) {
+            throw new Error(`Error: ${response.status}`)
+        }
+
+        const reader = response.body.getReader()
+        const decoder = new TextDecoder()
+        let buffer = ""
+
+        const handleEvent = (block) => {
+            let event = "message"
+            const data = []
+            for (const line of block.split("\n")) {
+                if (line.startsWith("event:")) {
+                    event = line.slice(6).trim()
+                } else if (line.startsWith("data:")) {
+                    // Spring scrie „data:” fără spațiu, deci un spațiu la început face parte din fragment
+                    data.push(line.slice(5))
+                }
             }
+            if (event === "token") {
+                onToken(data.join("\n"))
+            } else if (event === "error") {
+                throw new Error(data.join("\n"))
+            }
+            return event === "done"
+        }
 
-            const data = await response.text()
-            return data
-        } catch (error) {
-            console.error("Error sending message to backend:", error)
-            return "Ne pare rău, a apărut o eroare în comunicarea cu asistentul virtual. Vă rugăm să încercați din nou."
+        while (true) {
+            const { value, done } = await reader.read()
+            if (done) break
+            buffer += decoder.decode(value, { stream: true }).replace(/\r\n/g, "\n")
+
+            let separator
+            while ((separator = buffer.indexOf("\n\n")) !== -1) {
+                const block = buffer.slice(0, separator)
+                buffer = buffer.slice(separator + 2)
+                if (handleEvent(block)) {
+                    reader.cancel()
+                    return
+                }
+            }
+        }
+        if (buffer.trim()) {
+            handleEvent(buffer)
         }
     }
 
@@ -87,27 +129,35 @@ export default function AdoptionChatbot() {
         setInput("")
         setIsTyping(true)
 
-        try {
-            const assistantResponse = await sendMessageToBackend(input)
+        const assistantId = generateId()
+        let started = false
 
-            setMessages((prev) => [
-                ...prev,
-                {
-                    id: generateId(),
-                    role: "assistant",
-                    content: assistantResponse,
-                },
-            ])
+        try {
+            await streamMessageFromBackend(input, (token) => {
+                if (!started) {
+                    started = true
+                    setIsTyping(false)
+                    setMessages((prev) => [...prev, { id: assistantId, role: "assistant", content: token }])
+                } else {
+                    setMessages((prev) =>
+                        prev.map((message) =>
+                            message.id === assistantId ? { ...message, content: message.content + token } : message,
+                        ),
+                    )
+                }
+            })
         } catch (error) {
             console.error("Error in chat submission:", error)
-            setMessages((prev) => [
-                ...prev,
-                {
-                    id: generateId(),
-                    role: "assistant",
-                    content: "Ne pare rău, a apărut o eroare. Vă rugăm să încercați din nou.",
-                },
-            ])
+            const errorText = "Ne pare rău, a apărut o eroare. Vă rugăm să încercați din nou."
+            setMessages((prev) =>
+                started
+                    ? prev.map((message) =>
+                          message.id === assistantId
+                              ? { ...message, content: message.content + "\n\n" + errorText }
+                              : message,
+                      )
+                    : [...prev, { id: assistantId, role: "assistant", content: errorText }],
+            )
         } finally {
             setIsTyping(false)
         }
@@ -162,75 +162,33 @@ const ShelterMap = () => {
 
             try {
                 const radius = calculateRadius(zoom)
-                const nearbyResponse = await fetch(`${API_BASE_URL}/nearby`, {
-                    method: "POST",
-                    headers: { "Content-Type": "application/json" },
-                    body: JSON.stringify({ latitude: lat, longitude: lng, radius: radius }),
+                const params = new URLSearchParams({ latitude: lat, longitude: lng, radius: radius, size: 100 })
+                const response = await fetch(`${API_BASE_URL}/nearbyAnimals?${params}`, {
+                    method: "GET",
                     credentials: "include",
                 })
 
-                if (!nearbyResponse.ok) {
-                    throw new Error(`Failed to fetch nearby users: ${nearbyResponse.status}`)
+                if (!response.ok) {
+                    throw new Error(`Failed to fetch nearby animals: ${response.status}`)
                 }
 
-                const userIds = await nearbyResponse.json()
-
-                if (userIds.length === 0) {
-                    setAnimals([])
-                    setLocations({})
-                    setUserInfo({})
-                    setLoading(false)
-                    setIsInitialLoad(false)
-                    return
-                }
-
-                const animalPromises = userIds.map(async (userId) => {
-                    try {
-                        const [animalResponse, userResponse] = await Promise.all([
-                            fetch(`${API_BASE_URL}/animalCatalog?userId=${userId}`, {
-                                method: "GET",
-                                credentials: "include",
-                            }),
-                            fetch(`${API_BASE_URL}/users/${userId}`),
-                        ])
-
-                        let userAnimals = []
-                        let userData = null
-
-                        if (animalResponse.ok) {
-                            userAnimals = await animalResponse.json()
-                        }
-
-                        if (userResponse.ok) {
-                            userData = await userResponse.json()
-                        }
-
-                        return userAnimals.map((animal) => ({
-                            ...animal,
-                            userLocation: userData?.location || null,
-                            userContact: userData?.contact || null,
-                            userType: userData?.type || null,
-                            userName: userData?.name || null,
-                        }))
-                    } catch (err) {
-                        return []
-                    }
-                })
-
-                const animalArrays = await Promise.all(animalPromises)
-                const allAnimals = animalArrays.flat()
-                const validAnimals = allAnimals.filter((animal) => {
-                    const hasValidLocation =
-                        animal.userLocation &&
-                        animal.userLocation.coordinates &&
-                        Array.isArray(animal.userLocation.coordinates) &&
-                        animal.userLocation.coordinates.length === 2 &&
-                        typeof animal.userLocation.coordinates[0] === "number" &&
-                        typeof animal.userLocation.coordinates[1] === "number" &&
-                        !isNaN(animal.userLocation.coordinates[0]) &&
-                        !isNaN(animal.userLocation.coordinates[1])
-                    return hasValidLocation
-                })
+                const nearbyAnimals = await response.json()
+                const validAnimals = nearbyAnimals
+                    .filter(
+                        (animal) =>
+                            typeof animal.latitude === "number" &&
+                            typeof animal.longitude === "number" &&
+                            !isNaN(animal.latitude) &&
+                            !isNaN(animal.longitude),
+                    )
+                    .map((animal) => ({
+                        ...animal,
+                        images: animal.thumbnailUrl ? [animal.thumbnailUrl] : [],
+                        userLocation: { type: "Point", coordinates: [animal.longitude, animal.latitude] },
+                        userContact: animal.ownerContact || null,
+                        userType: animal.ownerType || null,
+                        userName: animal.ownerName || null,
+                    }))
 
                 setAnimals(validAnimals)
                 const userInfoMap = {}
@@ -243,9 +201,9 @@ const ShelterMap = () => {
                     }
                 })
                 setUserInfo(userInfoMap)
+                setLocations({})
                 validAnimals.forEach((animal) => {
-                    const [longitude, latitude] = animal.userLocation.coordinates
-                    fetchLocation(animal.id, latitude, longitude)
+                    fetchLocation(animal.id, animal.latitude, animal.longitude)
                 })
             } catch (err) {
                 setError("Nu s-au putut încărca datele. Încercați din nou mai târziu.")